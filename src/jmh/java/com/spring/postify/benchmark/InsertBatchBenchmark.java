@@ -0,0 +1,152 @@
+package com.spring.postify.benchmark;
+
+import com.spring.postify.entity.Comment;
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.Tag;
+import com.spring.postify.entity.User;
+import com.spring.postify.schema.SchemaMigrator;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Rows inserted per second (post, two new tags, two post_tags links, three comments) by JDBC
+// batch size and by how many ids one sequence call hands out. The id sequences are altered to the
+// allocation under test for the trial and put back to the mapped 50 afterwards, so point it at a
+// scratch database with -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.username and -Dbenchmark.jdbc.password.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsertBatchBenchmark {
+
+    private static final int POSTS_PER_OPERATION = 100;
+    private static final int ROWS_PER_POST = 1 + 2 + 2 + 3;
+    private static final int MAPPED_ALLOCATION = 50;
+    private static final List<String> SEQUENCES = List.of("users_seq", "posts_seq", "tags_seq", "comments_seq");
+
+    @Param({"1", "10", "50", "100"})
+    public int batchSize;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    private final String prefix = "bench-" + UUID.randomUUID() + "-";
+
+    private SessionFactory sessionFactory;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        String url = System.getProperty("benchmark.jdbc.url",
+                "jdbc:postgresql://localhost:5432/postify_bench?reWriteBatchedInserts=true");
+        String username = System.getProperty("benchmark.jdbc.username", "postgres");
+        String password = System.getProperty("benchmark.jdbc.password", "");
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, username, password);
+        new SchemaMigrator(dataSource).migrate();
+        alterSequences(dataSource, allocationSize);
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Post.class)
+                .addAnnotatedClass(Tag.class)
+                .addAnnotatedClass(Comment.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, username)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, password)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "validate")
+                // take the increment from the altered sequences instead of the mapping
+                .setProperty(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "fix")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.ORDER_UPDATES, "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        sessionFactory.inTransaction(session -> {
+            String posts = "SELECT id FROM posts WHERE title LIKE :prefix";
+            session.createNativeMutationQuery("DELETE FROM comments WHERE post_id IN (" + posts + ")")
+                    .setParameter("prefix", prefix + "%").executeUpdate();
+            session.createNativeMutationQuery("DELETE FROM post_tags WHERE post_id IN (" + posts + ")")
+                    .setParameter("prefix", prefix + "%").executeUpdate();
+            session.createNativeMutationQuery("DELETE FROM posts WHERE title LIKE :prefix")
+                    .setParameter("prefix", prefix + "%").executeUpdate();
+            session.createNativeMutationQuery("DELETE FROM tags WHERE name LIKE :prefix")
+                    .setParameter("prefix", prefix + "%").executeUpdate();
+            for (String sequence : SEQUENCES) {
+                session.createNativeMutationQuery("ALTER SEQUENCE " + sequence + " INCREMENT BY " + MAPPED_ALLOCATION)
+                        .executeUpdate();
+            }
+        });
+
+        sessionFactory.close();
+    }
+
+    private static void alterSequences(DataSource dataSource, int increment) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sequence : SEQUENCES) {
+                statement.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + increment);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS_PER_OPERATION * ROWS_PER_POST)
+    public long insertPostsWithTagsAndComments() {
+
+        sessionFactory.inTransaction(session -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            for (int i = 0; i < POSTS_PER_OPERATION; i++) {
+                long n = sequence++;
+
+                Tag first = new Tag(prefix + n + "-a", now, now);
+                Tag second = new Tag(prefix + n + "-b", now, now);
+                session.persist(first);
+                session.persist(second);
+
+                Post post = new Post(prefix + n, "excerpt", "content " + n, null, now, true, now, now);
+                post.setTags(Set.of(first, second));
+                session.persist(post);
+
+                for (int c = 0; c < 3; c++) {
+                    session.persist(new Comment("reader", "reader@example.com", "comment " + c, post, now, now));
+                }
+            }
+        });
+
+        return sequence;
+    }
+}
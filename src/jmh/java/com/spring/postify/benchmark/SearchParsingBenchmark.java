@@ -0,0 +1,87 @@
+package com.spring.postify.benchmark;
+
+import com.spring.postify.search.SearchCriteria;
+import com.spring.postify.service.PostService;
+import com.spring.postify.service.TagService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchParsingBenchmark {
+
+    @Param({"dateTime", "date", "invalid", "blank"})
+    public String dateInput;
+
+    private PostService postService;
+    private TagService tagService;
+
+    private String date;
+    private String[] authorIds;
+    private String[] invalidAuthorIds;
+
+    @Setup
+    public void setUp() {
+
+        postService = new PostService(null, null, null, null, null, null, null, null);
+        tagService = new TagService(null);
+
+        date = switch (dateInput) {
+            case "dateTime" -> "2024-05-01T10:15:30";
+            case "date" -> "2024-05-01";
+            case "invalid" -> "01/05/2024";
+            default -> "";
+        };
+
+        authorIds = new String[]{"1", "2", "3", "42"};
+        invalidAuthorIds = new String[]{"1", "x", "", "42"};
+    }
+
+    @Benchmark
+    public LocalDateTime parseFromDate() {
+        return postService.parseFromDate(date);
+    }
+
+    @Benchmark
+    public LocalDateTime parseToDate() {
+        return postService.parseToDate(date);
+    }
+
+    @Benchmark
+    public List<Long> parseAuthorIds() {
+        return postService.parseAuthorIds(authorIds);
+    }
+
+    @Benchmark
+    public List<Long> parseInvalidAuthorIds() {
+        return postService.parseAuthorIds(invalidAuthorIds);
+    }
+
+    @Benchmark
+    public SearchCriteria searchCriteria() {
+
+        LocalDateTime from = postService.parseFromDate(date);
+        LocalDateTime to = postService.parseToDate(date);
+        List<String> tagList = tagService.parseTagNames("#spring #java #boot");
+        List<Long> selectedAuthorIds = postService.parseAuthorIds(authorIds);
+
+        return SearchCriteria.of("all", "Spring Boot", "latest", from, to, selectedAuthorIds, tagList);
+    }
+}
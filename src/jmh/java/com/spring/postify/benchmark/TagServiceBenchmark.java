@@ -0,0 +1,122 @@
+package com.spring.postify.benchmark;
+
+import com.spring.postify.entity.Tag;
+import com.spring.postify.repository.TagRepository;
+import com.spring.postify.service.TagService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TagServiceBenchmark {
+
+    @Param({"1", "5", "15"})
+    public int tagCount;
+
+    private TagService tagService;
+    private String tagsInput;
+    private Set<Tag> tags;
+
+    @Setup
+    public void setUp() {
+
+        tagService = new TagService(inMemoryTagRepository());
+
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < tagCount; i++) {
+            input.append("#Tag").append(i).append(' ');
+        }
+        tagsInput = input.toString();
+
+        tags = tagService.parseTags(tagsInput);
+    }
+
+    @Benchmark
+    public List<String> parseTagNames() {
+        return tagService.parseTagNames(tagsInput);
+    }
+
+    @Benchmark
+    public Set<Tag> parseTags() {
+        return tagService.parseTags(tagsInput);
+    }
+
+    @Benchmark
+    public String formatTags() {
+        return tagService.formatTags(tags);
+    }
+
+    private static TagRepository inMemoryTagRepository() {
+
+        Map<String, Tag> byKey = new ConcurrentHashMap<>();
+        Map<Long, Tag> byId = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+
+        return (TagRepository) Proxy.newProxyInstance(
+                TagRepository.class.getClassLoader(),
+                new Class<?>[]{TagRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllCached" -> {
+                        List<Tag> result = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            Tag tag = byId.get((Long) id);
+                            if (tag != null) result.add(tag);
+                        }
+                        yield result;
+                    }
+                    case "findByNameKeys" -> {
+                        List<Tag> result = new ArrayList<>();
+                        for (Object key : (Collection<?>) args[0]) {
+                            Tag tag = byKey.get((String) key);
+                            if (tag != null) result.add(tag);
+                        }
+                        yield result;
+                    }
+                    case "insertIgnoringDuplicates" -> {
+                        int inserted = 0;
+                        for (String name : (String[]) args[0]) {
+                            String key = name.toLowerCase(Locale.ROOT);
+                            if (!byKey.containsKey(key)) {
+                                Tag tag = new Tag(name, LocalDateTime.now(), LocalDateTime.now());
+                                tag.setId(ids.incrementAndGet());
+                                byKey.put(key, tag);
+                                byId.put(tag.getId(), tag);
+                                inserted++;
+                            }
+                        }
+                        yield inserted;
+                    }
+                    case "findAll" -> new ArrayList<>(new HashSet<>(byId.values()));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryTagRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,105 @@
+package com.spring.postify.benchmark;
+
+import com.spring.postify.PostifyApplication;
+import com.spring.postify.entity.Post;
+import com.spring.postify.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Requests per second and latency percentiles (SampleTime reports p99) through the real request
+// path: the application runs in-process on Tomcat with Hikari and the Postgres configured in
+// application.properties (override with -Dspring.datasource.url etc.), and 512 client threads
+// fetch pages over HTTP. Compares Tomcat's platform-thread pool with spring.threads.virtual.enabled,
+// which needs Java 21+ and also turns on connection admission. The database needs at least one post.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(512)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+
+    private URI list;
+    private URI view;
+    private URI search;
+
+    @Setup
+    public void setUp() {
+
+        application = new SpringApplicationBuilder(PostifyApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.devtools.restart.enabled=false")
+                .run();
+
+        Long postId = application.getBean(PostRepository.class).findAll(PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(Post::getId)
+                .orElseThrow(() -> new IllegalStateException("The benchmark database has no posts"));
+
+        String base = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        list = URI.create(base + "/posts");
+        view = URI.create(base + "/posts/" + postId);
+        search = URI.create(base + "/posts/search?type=all&keyword=post&sortBy=latest");
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int listPosts() throws Exception {
+        return get(list);
+    }
+
+    @Benchmark
+    public int viewPost() throws Exception {
+        return get(view);
+    }
+
+    @Benchmark
+    public int searchPosts() throws Exception {
+        return get(search);
+    }
+
+    private int get(URI uri) throws Exception {
+
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        if (response.statusCode() != 200)
+            throw new IllegalStateException(uri + " returned " + response.statusCode());
+
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,34 @@
+package com.spring.postify.archive;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.Locale;
+
+public enum ArchiveFormat {
+    NDJSON,
+    CSV;
+
+    public static ArchiveFormat of(String format, String contentType) {
+
+        if (format != null && !format.isBlank())
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv"))
+            return CSV;
+
+        return NDJSON;
+    }
+
+    public static ArchiveFormat forFile(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+
+    public Iterator<ArchivedPost> reader(Reader input, JsonMapper jsonMapper) {
+        return switch (this) {
+            case NDJSON -> jsonMapper.readerFor(ArchivedPost.class).readValues(input);
+            case CSV -> new CsvArchiveReader(input);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.spring.postify.archive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ArchivedPost(Long id,
+                           String title,
+                           String excerpt,
+                           String content,
+                           String authorEmail,
+                           LocalDateTime publishedAt,
+                           List<String> tags,
+                           List<ArchivedComment> comments) {
+
+    public record ArchivedComment(String name,
+                                  String email,
+                                  String comment,
+                                  LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.spring.postify.archive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Columns by header name: title, excerpt, content, author_email, published_at, tags ("#a #b").
+public class CsvArchiveReader implements Iterator<ArchivedPost> {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private List<String> nextRow;
+
+    public CsvArchiveReader(Reader input) {
+        this.reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+
+        List<String> header = readRow();
+        if (header == null)
+            return;
+
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        nextRow = readRow();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public ArchivedPost next() {
+
+        if (nextRow == null)
+            throw new NoSuchElementException();
+
+        List<String> row = nextRow;
+        nextRow = readRow();
+
+        String publishedAt = column(row, "published_at");
+        String tags = column(row, "tags");
+
+        return new ArchivedPost(
+                null,
+                column(row, "title"),
+                column(row, "excerpt"),
+                column(row, "content"),
+                column(row, "author_email"),
+                publishedAt == null ? null : parseDate(publishedAt),
+                tags == null ? List.of() : List.of(tags.split("#")),
+                List.of()
+        );
+    }
+
+    private String column(List<String> row, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size())
+            return null;
+
+        String value = row.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private LocalDateTime parseDate(String value) {
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private List<String> readRow() {
+
+        try {
+            int c = reader.read();
+
+            while (c == '\r' || c == '\n')
+                c = reader.read();
+
+            if (c == -1)
+                return null;
+
+            List<String> row = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+
+                c = reader.read();
+            }
+
+            row.add(field.toString());
+            return row;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.spring.postify.archive;
+
+public record ImportReport(long read, long imported, long rejected, long comments, long elapsedMillis) {
+
+    public long postsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "read=" + read + " imported=" + imported + " rejected=" + rejected
+                + " comments=" + comments + " elapsed=" + elapsedMillis + "ms rate=" + postsPerSecond() + "/s";
+    }
+}
@@ -0,0 +1,58 @@
+package com.spring.postify.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// java -jar postify.jar --import=archive.ndjson [--format=csv] --spring.main.web-application-type=none
+@Component
+public class ImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportRunner.class);
+
+    private final PostImporter postImporter;
+    private final JsonMapper jsonMapper;
+    private final ConfigurableApplicationContext context;
+
+    public ImportRunner(PostImporter postImporter, JsonMapper jsonMapper, ConfigurableApplicationContext context) {
+        this.postImporter = postImporter;
+        this.jsonMapper = jsonMapper;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        if (!args.containsOption("import"))
+            return;
+
+        Path file = Path.of(args.getOptionValues("import").get(0));
+        ArchiveFormat format = args.containsOption("format")
+                ? ArchiveFormat.of(args.getOptionValues("format").get(0), null)
+                : ArchiveFormat.forFile(file.getFileName().toString());
+
+        log.info("Importing {} as {}", file, format);
+
+        int exitCode;
+        try (Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            postImporter.importPosts(format.reader(input, jsonMapper));
+            exitCode = 0;
+        } catch (RuntimeException e) {
+            log.error("Import of {} failed", file, e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
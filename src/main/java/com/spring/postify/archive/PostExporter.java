@@ -0,0 +1,100 @@
+package com.spring.postify.archive;
+
+import com.spring.postify.dto.CommentExportRow;
+import com.spring.postify.dto.PostExportRow;
+import com.spring.postify.dto.PostTagName;
+import com.spring.postify.repository.CommentRepository;
+import com.spring.postify.repository.PostRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class PostExporter {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostExporter(PostRepository postRepository, CommentRepository commentRepository,
+                        JsonMapper jsonMapper, PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public long export(OutputStream out) {
+
+        return transactionTemplate.execute(status -> {
+            SequenceWriter writer = jsonMapper.writerFor(ArchivedPost.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+
+            long exported = 0;
+            List<PostExportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            try (Stream<PostExportRow> rows = postRepository.streamForExport()) {
+                Iterator<PostExportRow> iterator = rows.iterator();
+
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+
+                    if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                        writeChunk(chunk, writer);
+                        exported += chunk.size();
+                        chunk.clear();
+                    }
+                }
+            }
+
+            writer.flush();
+            return exported;
+        });
+    }
+
+    private void writeChunk(List<PostExportRow> chunk, SequenceWriter writer) {
+
+        List<Long> ids = chunk.stream().map(PostExportRow::id).toList();
+
+        Map<Long, List<String>> tagsByPostId = postRepository.findTagNamesByPostIdIn(ids).stream()
+                .collect(Collectors.groupingBy(PostTagName::getPostId,
+                        Collectors.mapping(PostTagName::getName, Collectors.toList())));
+
+        Map<Long, List<ArchivedPost.ArchivedComment>> commentsByPostId = new HashMap<>();
+        for (CommentExportRow row : commentRepository.findExportRowsByPostIdIn(ids)) {
+            commentsByPostId.computeIfAbsent(row.postId(), id -> new ArrayList<>())
+                    .add(new ArchivedPost.ArchivedComment(row.name(), row.email(), row.comment(), row.createdAt()));
+        }
+
+        for (PostExportRow row : chunk) {
+            writer.write(new ArchivedPost(
+                    row.id(),
+                    row.title(),
+                    row.excerpt(),
+                    row.content(),
+                    row.authorEmail(),
+                    row.publishedAt(),
+                    tagsByPostId.getOrDefault(row.id(), List.of()),
+                    commentsByPostId.getOrDefault(row.id(), List.of())
+            ));
+        }
+
+        writer.flush();
+    }
+}
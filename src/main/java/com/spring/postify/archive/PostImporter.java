@@ -0,0 +1,172 @@
+package com.spring.postify.archive;
+
+import com.spring.postify.entity.Comment;
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.Tag;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.PostRepository;
+import com.spring.postify.repository.UserRepository;
+import com.spring.postify.service.PostService;
+import com.spring.postify.service.TagService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Service
+public class PostImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImporter.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final TagService tagService;
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostImporter(UserRepository userRepository, PostRepository postRepository,
+                        TagService tagService, PostService postService,
+                        PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.tagService = tagService;
+        this.postService = postService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReport importPosts(Iterator<ArchivedPost> records) {
+        return importPosts(records, report -> log.info("Import progress: {}", report));
+    }
+
+    public ImportReport importPosts(Iterator<ArchivedPost> records, Consumer<ImportReport> progress) {
+
+        long started = System.currentTimeMillis();
+        Map<String, Long> authorIds = new HashMap<>();
+        long read = 0, imported = 0, rejected = 0, comments = 0;
+
+        List<ArchivedPost> batch = new ArrayList<>(BATCH_SIZE);
+
+        try {
+            while (records.hasNext()) {
+                batch.add(records.next());
+                read++;
+
+                if (batch.size() == BATCH_SIZE || !records.hasNext()) {
+                    long[] written = transactionTemplate.execute(status -> writeBatch(batch, authorIds));
+                    imported += written[0];
+                    comments += written[1];
+                    rejected += batch.size() - written[0];
+                    batch.clear();
+
+                    progress.accept(new ImportReport(read, imported, rejected, comments,
+                            System.currentTimeMillis() - started));
+                }
+            }
+        } finally {
+            if (imported > 0)
+                postService.refreshAfterBulkChange();
+        }
+
+        ImportReport report = new ImportReport(read, imported, rejected, comments, System.currentTimeMillis() - started);
+        log.info("Import finished: {}", report);
+        return report;
+    }
+
+    private long[] writeBatch(List<ArchivedPost> batch, Map<String, Long> authorIds) {
+
+        resolveAuthors(batch, authorIds);
+
+        Set<String> tagNames = new HashSet<>();
+        batch.forEach(record -> {
+            if (record.tags() != null)
+                tagNames.addAll(record.tags());
+        });
+        Map<String, Long> tagIds = tagService.resolveTagIds(tagNames);
+
+        List<Long> commentedPostIds = new ArrayList<>();
+        long imported = 0, comments = 0;
+
+        for (ArchivedPost record : batch) {
+
+            if (record.title() == null || record.title().isBlank())
+                continue;
+
+            User author = null;
+            if (record.authorEmail() != null) {
+                Long authorId = authorIds.get(record.authorEmail());
+                if (authorId == null)
+                    continue;
+                author = entityManager.getReference(User.class, authorId);
+            }
+
+            Set<Tag> tags = new HashSet<>();
+            if (record.tags() != null) {
+                for (String name : record.tags()) {
+                    if (name == null || name.isBlank())
+                        continue;
+                    tags.add(entityManager.getReference(Tag.class, tagIds.get(tagService.normalize(name))));
+                }
+            }
+
+            Post post = new Post(record.title(), record.excerpt(), record.content(), author,
+                    record.publishedAt(), true, record.publishedAt(), null);
+            post.setTags(tags);
+            entityManager.persist(post);
+            imported++;
+
+            if (record.comments() != null && !record.comments().isEmpty()) {
+                for (ArchivedPost.ArchivedComment archived : record.comments()) {
+                    entityManager.persist(new Comment(archived.name(), archived.email(), archived.comment(),
+                            post, archived.createdAt(), archived.createdAt()));
+                    comments++;
+                }
+                commentedPostIds.add(post.getId());
+            }
+        }
+
+        entityManager.flush();
+
+        if (!commentedPostIds.isEmpty())
+            postRepository.refreshCommentCounts(commentedPostIds);
+
+        entityManager.clear();
+
+        return new long[]{imported, comments};
+    }
+
+    private void resolveAuthors(List<ArchivedPost> batch, Map<String, Long> authorIds) {
+
+        Set<String> unknown = new HashSet<>();
+
+        for (ArchivedPost record : batch) {
+            if (record.authorEmail() != null && !authorIds.containsKey(record.authorEmail()))
+                unknown.add(record.authorEmail());
+        }
+
+        if (unknown.isEmpty())
+            return;
+
+        for (User user : userRepository.findByEmailIn(unknown)) {
+            authorIds.put(user.getEmail(), user.getId());
+        }
+
+        unknown.forEach(email -> authorIds.putIfAbsent(email, null));
+    }
+}
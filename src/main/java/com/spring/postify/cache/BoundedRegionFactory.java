@@ -0,0 +1,84 @@
+package com.spring.postify.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Second-level cache regions backed by BoundedCache, configured through
+// spring.jpa.properties.postify.cache.max-entries / ttl
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "postify.cache.max-entries";
+    public static final String TTL = "postify.cache.ttl";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    // one row per table, so it never needs bounding; expiring it would let stale query results through
+    private static final int TIMESTAMPS_MAX_ENTRIES = 1_000;
+
+    private final Map<String, BoundedCache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private Duration ttl = DEFAULT_TTL;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+
+        Object maxEntriesValue = configValues.get(MAX_ENTRIES);
+        if (maxEntriesValue != null) {
+            maxEntries = Integer.parseInt(maxEntriesValue.toString().trim());
+        }
+
+        Object ttlValue = configValues.get(TTL);
+        if (ttlValue != null) {
+            ttl = DurationStyle.detectAndParse(ttlValue.toString().trim());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedCache::clear);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorageAccess(region(regionConfig.getRegionName(), maxEntries, ttl));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(region(regionName, maxEntries, ttl));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(region(regionName, TIMESTAMPS_MAX_ENTRIES, null));
+    }
+
+    public List<CacheStatistics> statistics() {
+        return regions.values().stream()
+                .map(CacheStatistics::of)
+                .sorted(Comparator.comparing(CacheStatistics::name))
+                .toList();
+    }
+
+    private BoundedCache<Object, Object> region(String name, int size, Duration timeToLive) {
+        return regions.computeIfAbsent(name, n -> new BoundedCache<>(n, size, timeToLive));
+    }
+}
@@ -0,0 +1,14 @@
+package com.spring.postify.cache;
+
+public record CacheStatistics(String name, int size, int maxSize, long hits, long misses, long evictions,
+                              double hitRatio) {
+
+    public static CacheStatistics of(BoundedCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long lookups = hits + misses;
+
+        return new CacheStatistics(cache.getName(), cache.size(), cache.getMaxSize(), hits, misses,
+                cache.getEvictions(), lookups == 0 ? 0 : (double) hits / lookups);
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring.postify.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// current() versions what posts say (titles, bodies, tags, authors) and keys the summary, row and
+// search caches; counters() versions comment counts, which only conditional GETs need to see.
+// View counts bump neither, so a revalidated page may show them slightly behind.
+@Component
+public class ContentVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong counters = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+    private volatile long countersModified = lastModified;
+
+    public long current() {
+        return version.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public long bump() {
+        lastModified = System.currentTimeMillis();
+        return version.incrementAndGet();
+    }
+
+    public long counters() {
+        return counters.get();
+    }
+
+    public long countersChanged() {
+        countersModified = System.currentTimeMillis();
+        return counters.incrementAndGet();
+    }
+
+    // for Last-Modified on pages that show both content and counters
+    public long pageLastModified() {
+        return Math.max(lastModified, countersModified);
+    }
+}
@@ -0,0 +1,122 @@
+package com.spring.postify.cache;
+
+import com.spring.postify.dto.PostSummary;
+import com.spring.postify.entity.Comment;
+import com.spring.postify.entity.Post;
+import com.spring.postify.ingest.PendingComment;
+import com.spring.postify.repository.CommentCursor;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Component
+public class FragmentCache {
+
+    private static final String TEMPLATE = "posts/fragments";
+
+    // cached rows leave this slot for the counters, which are rendered on every request
+    private static final String COUNTERS_SLOT = "<!--postify:counters-->";
+
+    public record RenderedPost(String version,
+                               String title,
+                               String authorEmail,
+                               String body,
+                               String comments,
+                               String commentsWithActions) {
+
+        public String comments(boolean canModify) {
+            return canModify ? commentsWithActions : comments;
+        }
+    }
+
+    private record RenderedRow(String html, String htmlWithActions) {
+    }
+
+    private final ITemplateEngine templateEngine;
+
+    private final BoundedCache<Long, RenderedPost> posts = new BoundedCache<>("post-fragments", 1_000);
+    private final BoundedCache<String, RenderedRow> rows =
+            new BoundedCache<>("row-fragments", 5_000, Duration.ofMinutes(5));
+
+    public FragmentCache(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    public RenderedPost getPost(Long postId,
+                                String version,
+                                Supplier<Post> post,
+                                Supplier<Slice<Comment>> comments) {
+
+        RenderedPost cached = posts.get(postId);
+        if (cached != null && cached.version().equals(version))
+            return cached;
+
+        Post loaded = post.get();
+        Slice<Comment> firstPage = comments.get();
+
+        RenderedPost rendered = new RenderedPost(
+                version,
+                loaded.getTitle(),
+                loaded.getAuthor() != null ? loaded.getAuthor().getEmail() : null,
+                render("postBody", Map.of("post", loaded)),
+                renderComments(postId, firstPage, false),
+                renderComments(postId, firstPage, true)
+        );
+
+        posts.put(postId, rendered);
+        return rendered;
+    }
+
+    public String getRow(PostSummary post, long contentVersion, boolean canModify) {
+
+        RenderedRow row = rows.get(post.id() + ":" + contentVersion, key -> new RenderedRow(
+                render("postRow", Map.of("post", post, "canModify", false, "counters", COUNTERS_SLOT)),
+                render("postRow", Map.of("post", post, "canModify", true, "counters", COUNTERS_SLOT))
+        ));
+
+        return (canModify ? row.htmlWithActions() : row.html())
+                .replace(COUNTERS_SLOT, render("postCounters", Map.of("post", post)));
+    }
+
+    public String renderComments(Long postId, Slice<Comment> comments, boolean canModify) {
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("postId", postId);
+        variables.put("comments", comments.getContent());
+        variables.put("canModify", canModify);
+        variables.put("nextCursor", nextCursor(comments));
+
+        return render("comments", variables);
+    }
+
+    public String renderPendingComments(List<PendingComment> comments) {
+        return render("pendingComments", Map.of("comments", comments));
+    }
+
+    private String nextCursor(Slice<Comment> comments) {
+
+        if (!comments.hasNext() || comments.getContent().isEmpty())
+            return null;
+
+        List<Comment> content = comments.getContent();
+        return CommentCursor.after(content.get(content.size() - 1)).encode();
+    }
+
+    public void invalidatePost(Long postId) {
+        posts.invalidate(postId);
+    }
+
+    private String render(String fragment, Map<String, Object> variables) {
+        Context context = new Context(LocaleContextHolder.getLocale(), variables);
+        return templateEngine.process(TEMPLATE, Set.of(fragment), context);
+    }
+}
@@ -0,0 +1,42 @@
+package com.spring.postify.config;
+
+import com.spring.postify.diagnostics.SlowQueryLog;
+import com.spring.postify.diagnostics.TimedDataSource;
+import com.spring.postify.metrics.HikariPoolMetrics;
+import com.spring.postify.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceMetrics(ObjectProvider<MetricsRegistry> metrics,
+                                               ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    hikari.setMetricsTrackerFactory(new HikariPoolMetrics(metrics.getObject()));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // only the application-facing bean; the pools behind a routing DataSource stay unwrapped
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, metrics.getObject(), slowQueryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
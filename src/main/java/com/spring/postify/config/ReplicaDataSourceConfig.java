@@ -0,0 +1,101 @@
+package com.spring.postify.config;
+
+import com.spring.postify.cache.ContentVersion;
+import com.spring.postify.datasource.ReadYourWritesInterceptor;
+import com.spring.postify.datasource.ReplicaLagMonitor;
+import com.spring.postify.datasource.ReplicaRoutingDataSource;
+import com.spring.postify.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Active once postify.datasource.replica.url is set; without it the single auto-configured pool is used
+@Configuration
+@ConditionalOnProperty(prefix = "postify.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    // the default lag query for a Postgres streaming replica; a replica that has replayed
+    // everything it received is never behind, however long ago the last write was
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            END
+            """;
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("postify.datasource.replica")
+    DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("postify.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                       @Qualifier("replicaDataSourceProperties") DataSourceProperties replica) {
+
+        DataSourceBuilder<HikariDataSource> builder = replica.initializeDataSourceBuilder().type(HikariDataSource.class);
+        if (replica.getUsername() == null) {
+            builder.username(properties.determineUsername()).password(properties.determinePassword());
+        }
+
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                        @Value("${postify.datasource.replica.lag-query:#{null}}") String lagQuery,
+                                        @Value("${postify.datasource.replica.max-lag:5s}") Duration maxLag,
+                                        MetricsRegistry metrics) {
+        // an explicitly blank lag-query disables the check, e.g. for embedded stand-in databases
+        return new ReplicaLagMonitor(replica, lagQuery != null ? lagQuery : POSTGRES_LAG_QUERY, maxLag, metrics);
+    }
+
+    @Bean
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          ReplicaLagMonitor lagMonitor,
+                          ContentVersion contentVersion,
+                          @Value("${postify.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica,
+                lagMonitor::isAvailable, contentVersion::lastModified, maxLag));
+    }
+
+    @Bean
+    ReadYourWritesInterceptor readYourWritesInterceptor(
+            @Value("${postify.datasource.replica.sticky-window:5s}") Duration window) {
+        return new ReadYourWritesInterceptor(window);
+    }
+
+    // the routing decision is made per connection, so hand it back after every transaction
+    // instead of holding the first one (possibly a replica connection) for the whole request
+    @Bean
+    HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(JdbcSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
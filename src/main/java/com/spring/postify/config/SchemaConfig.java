@@ -0,0 +1,15 @@
+package com.spring.postify.config;
+
+import com.spring.postify.schema.SchemaMigrator;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaConfig {
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migrateBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+}
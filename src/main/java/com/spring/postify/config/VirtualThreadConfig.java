@@ -0,0 +1,33 @@
+package com.spring.postify.config;
+
+import com.spring.postify.datasource.ConnectionAdmissionPostProcessor;
+import com.spring.postify.diagnostics.PinnedThreadMonitor;
+import com.spring.postify.metrics.MetricsRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Active with spring.threads.virtual.enabled=true on Java 21+, where Boot also moves Tomcat,
+// the task executor and the scheduler onto virtual threads
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static ConnectionAdmissionPostProcessor connectionAdmission(
+            ObjectProvider<MetricsRegistry> metrics,
+            @Value("${postify.datasource.admission.max-waiting:1000}") int maxWaiting) {
+        return new ConnectionAdmissionPostProcessor(metrics, maxWaiting);
+    }
+
+    @Bean
+    PinnedThreadMonitor pinnedThreadMonitor(@Value("${postify.threads.pinned-threshold:20ms}") Duration threshold,
+                                            MetricsRegistry metrics) {
+        return new PinnedThreadMonitor(threshold, metrics);
+    }
+}
@@ -0,0 +1,36 @@
+package com.spring.postify.config;
+
+import com.spring.postify.datasource.ReadYourWritesInterceptor;
+import com.spring.postify.diagnostics.SqlStatisticsInterceptor;
+import com.spring.postify.metrics.MetricsRegistry;
+import com.spring.postify.metrics.RequestTimingInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MetricsRegistry metrics;
+    private final SqlStatisticsInterceptor sqlStatisticsInterceptor;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    public WebConfig(MetricsRegistry metrics,
+                     SqlStatisticsInterceptor sqlStatisticsInterceptor,
+                     ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+        this.metrics = metrics;
+        this.sqlStatisticsInterceptor = sqlStatisticsInterceptor;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTimingInterceptor(metrics))
+                .excludePathPatterns("/css/**", "/diagnostics/**");
+        registry.addInterceptor(sqlStatisticsInterceptor)
+                .excludePathPatterns("/css/**", "/diagnostics/**");
+        readYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .excludePathPatterns("/css/**"));
+    }
+}
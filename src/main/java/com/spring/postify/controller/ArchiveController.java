@@ -0,0 +1,61 @@
+package com.spring.postify.controller;
+
+import com.spring.postify.archive.ArchiveFormat;
+import com.spring.postify.archive.ImportReport;
+import com.spring.postify.archive.PostExporter;
+import com.spring.postify.archive.PostImporter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Controller
+@RequestMapping("/posts")
+public class ArchiveController {
+
+    private final PostImporter postImporter;
+    private final PostExporter postExporter;
+    private final JsonMapper jsonMapper;
+
+    public ArchiveController(PostImporter postImporter, PostExporter postExporter, JsonMapper jsonMapper) {
+        this.postImporter = postImporter;
+        this.postExporter = postExporter;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @GetMapping("/export")
+    public void exportPosts(HttpServletResponse response) throws IOException {
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"posts-" + LocalDate.now() + ".ndjson\"");
+
+        postExporter.export(response.getOutputStream());
+    }
+
+    @PostMapping("/import")
+    @ResponseBody
+    public ImportReport importPosts(@RequestParam(required = false) String format,
+                                    HttpServletRequest request) throws IOException {
+
+        ArchiveFormat archiveFormat = ArchiveFormat.of(format, request.getContentType());
+
+        try (Reader input = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            return postImporter.importPosts(archiveFormat.reader(input, jsonMapper));
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.spring.postify.controller;
 
 import com.spring.postify.entity.Comment;
 import com.spring.postify.entity.Post;
+import com.spring.postify.ingest.CommentIngestor;
 import com.spring.postify.service.CommentService;
 import com.spring.postify.service.PostService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +16,13 @@ public class CommentController {
 
     private final CommentService commentService;
     private final PostService postService;
+    private final ObjectProvider<CommentIngestor> commentIngestor;
 
-    public CommentController(CommentService commentService, PostService postService){
+    public CommentController(CommentService commentService, PostService postService,
+                             ObjectProvider<CommentIngestor> commentIngestor){
         this.commentService = commentService;
         this.postService = postService;
+        this.commentIngestor = commentIngestor;
     }
 
     private Comment getComment(Long id) {
@@ -31,6 +36,12 @@ public class CommentController {
             @RequestParam String email,
             @RequestParam("comment") String commentText) {
 
+        CommentIngestor ingestor = commentIngestor.getIfAvailable();
+        if (ingestor != null) {
+            ingestor.submit(postId, name, email, commentText);
+            return "redirect:/posts/" + postId + "#comments";
+        }
+
         Post post = postService.getPost(postId);
 
         Comment comment = new Comment();
@@ -46,10 +57,10 @@ public class CommentController {
 
     @GetMapping("/delete/{id}")
     public String delete(@PathVariable Long id){
-        Comment comment = getComment(id);
-        Long postId = comment.getPost().getId();
+        Long postId = commentService.delete(id);
 
-        commentService.delete(id);
+        if (postId == null)
+            return "redirect:/posts";
 
         return "redirect:/posts/" + postId + "#comments";
     }
@@ -67,12 +78,7 @@ public class CommentController {
                                 @RequestParam String email,
                                 @RequestParam("comment") String commentText){
 
-        Comment comment = getComment(id);
-        comment.setName(name);
-        comment.setEmail(email);
-        comment.setComment(commentText);
-
-        commentService.save(comment);
+        Comment comment = commentService.update(id, name, email, commentText);
 
         return "redirect:/posts/" + comment.getPost().getId() + "#comments";
     }
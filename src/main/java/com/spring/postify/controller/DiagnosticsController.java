@@ -0,0 +1,65 @@
+package com.spring.postify.controller;
+
+import com.spring.postify.cache.BoundedRegionFactory;
+import com.spring.postify.cache.CacheStatistics;
+import com.spring.postify.diagnostics.SqlStatisticsInterceptor;
+import com.spring.postify.metrics.MetricsRegistry;
+import com.spring.postify.search.SearchResultCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Controller
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MetricsRegistry metrics;
+    private final SqlStatisticsInterceptor sqlStatistics;
+    private final SearchResultCache searchResults;
+
+    public DiagnosticsController(EntityManagerFactory entityManagerFactory,
+                                 MetricsRegistry metrics,
+                                 SqlStatisticsInterceptor sqlStatistics,
+                                 SearchResultCache searchResults) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.metrics = metrics;
+        this.sqlStatistics = sqlStatistics;
+        this.searchResults = searchResults;
+    }
+
+    @GetMapping("/sql")
+    @ResponseBody
+    public List<SqlStatisticsInterceptor.Violation> sqlViolations() {
+        return sqlStatistics.recentViolations();
+    }
+
+    @GetMapping(value = "/metrics", produces = "text/plain;version=0.0.4;charset=utf-8")
+    @ResponseBody
+    public String metrics() {
+        return metrics.scrape();
+    }
+
+    @GetMapping("/cache")
+    @ResponseBody
+    public List<CacheStatistics> cacheStatistics() {
+
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+
+        List<CacheStatistics> statistics = new ArrayList<>(searchResults.statistics());
+
+        if (regionFactory instanceof BoundedRegionFactory bounded)
+            statistics.addAll(bounded.statistics());
+
+        return statistics;
+    }
+}
@@ -1,18 +1,40 @@
 package com.spring.postify.controller;
 
+import com.spring.postify.cache.ContentVersion;
+import com.spring.postify.cache.FragmentCache;
+import com.spring.postify.dto.AuthorSummary;
+import com.spring.postify.dto.PostSummary;
+import com.spring.postify.dto.PostVersion;
+import com.spring.postify.diagnostics.SqlBudget;
+import com.spring.postify.dto.SearchCount;
+import com.spring.postify.entity.Comment;
 import com.spring.postify.entity.Post;
-import com.spring.postify.entity.User;
+import com.spring.postify.ingest.CommentIngestor;
+import com.spring.postify.ingest.PendingComment;
+import com.spring.postify.repository.CommentCursor;
+import com.spring.postify.repository.PostCursor;
+import com.spring.postify.search.SearchCriteria;
+import com.spring.postify.security.AuthenticatedUser;
 import com.spring.postify.service.CommentService;
 import com.spring.postify.service.PostService;
 import com.spring.postify.service.TagService;
 import com.spring.postify.service.UserService;
+import com.spring.postify.service.ViewCounter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,44 +46,175 @@ public class PostController {
     private final UserService userService;
     private final CommentService commentService;
     private final TagService tagService;
+    private final ContentVersion contentVersion;
+    private final FragmentCache fragmentCache;
+    private final ViewCounter viewCounter;
+    private final ObjectProvider<CommentIngestor> commentIngestor;
 
     public PostController(PostService postService, UserService userService,
-                          CommentService commentService, TagService tagService) {
+                          CommentService commentService, TagService tagService,
+                          ContentVersion contentVersion, FragmentCache fragmentCache,
+                          ViewCounter viewCounter, ObjectProvider<CommentIngestor> commentIngestor) {
         this.postService = postService;
         this.userService = userService;
         this.commentService = commentService;
         this.tagService = tagService;
+        this.contentVersion = contentVersion;
+        this.fragmentCache = fragmentCache;
+        this.viewCounter = viewCounter;
+        this.commentIngestor = commentIngestor;
     }
 
     @GetMapping
+    @SqlBudget(statements = 8)
     public String listPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest request,
             Model model) {
 
-        Page<Post> postPage = postService.getPostsFiltered(page, size);
-        List<User> authors = postService.getDistinctAuthorDetails();
+        if (notModified(request, contentVersion.pageLastModified(),
+                "list:" + contentVersion.current() + ":" + contentVersion.counters()))
+            return null;
 
+        List<AuthorSummary> authors = postService.getDistinctAuthorDetails();
         model.addAttribute("authors", authors);
+        model.addAttribute("size", size);
+
+        PostCursor after = PostCursor.decode(cursor, "latest");
+
+        if (after != null) {
+            Slice<PostSummary> slice = postService.scrollPosts(after, size);
+
+            model.addAttribute("posts", slice.getContent());
+            model.addAttribute("rows", rows(slice.getContent()));
+            model.addAttribute("currentPage", 0);
+            model.addAttribute("totalPages", 0);
+            model.addAttribute("nextCursor", nextCursor("latest", slice));
+
+            return "posts/list";
+        }
+
+        Page<PostSummary> postPage = postService.getPostsFiltered(page, size);
+
         model.addAttribute("posts", postPage.getContent());
+        model.addAttribute("rows", rows(postPage.getContent()));
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", postPage.getTotalPages());
         model.addAttribute("totalItems", postPage.getTotalElements());
-        model.addAttribute("size", size);
+        model.addAttribute("nextCursor", nextCursor("latest", postPage));
 
         return "posts/list";
     }
 
+    private List<String> rows(List<PostSummary> posts) {
+        long version = contentVersion.current();
+        return posts.stream()
+                .map(post -> fragmentCache.getRow(post, version, canModify(post.authorEmail())))
+                .toList();
+    }
+
+    private boolean canModify(String authorEmail) {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null)
+            return false;
+
+        boolean admin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        return admin || (authorEmail != null && authorEmail.equals(auth.getName()));
+    }
+
+    // comments still queued for the database go on top of the first page, replacing "No comments yet"
+    private String withPending(List<PendingComment> pending, long commentCount, String commentsHtml) {
+
+        if (pending.isEmpty())
+            return commentsHtml;
+
+        String pendingHtml = fragmentCache.renderPendingComments(pending);
+        return commentCount == 0 ? pendingHtml : pendingHtml + commentsHtml;
+    }
+
+    private String nextCursor(String sortBy, Slice<PostSummary> slice) {
+
+        if (!slice.hasNext() || slice.getContent().isEmpty() || "relevance".equals(sortBy))
+            return null;
+
+        List<PostSummary> content = slice.getContent();
+        return PostCursor.after(sortBy, content.get(content.size() - 1)).encode();
+    }
+
+    private boolean notModified(ServletWebRequest request, long lastModified, String version) {
+
+        HttpServletRequest servletRequest = request.getRequest();
+        HttpSession session = servletRequest.getSession(false);
+
+        String etag = DigestUtils.md5DigestAsHex(String.join("|",
+                version,
+                String.valueOf(servletRequest.getQueryString()),
+                String.valueOf(servletRequest.getRemoteUser()),
+                session != null ? session.getId() : ""
+        ).getBytes(StandardCharsets.UTF_8));
+
+        if (request.getResponse() != null)
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        return request.checkNotModified(etag, lastModified);
+    }
+
     @GetMapping("/{id}")
-    public String view(@PathVariable Long id, Model model) {
-        model.addAttribute("post", postService.getPost(id));
-        model.addAttribute("comments", commentService.getCommentsByPost(id));
+    @SqlBudget(statements = 8)
+    public String view(@PathVariable Long id,
+                       @RequestParam(required = false) String comments,
+                       ServletWebRequest request,
+                       Model model) {
+
+        PostVersion version = postService.getPostVersion(id);
+        viewCounter.record(id);
+
+        CommentIngestor ingestor = commentIngestor.getIfAvailable();
+        List<PendingComment> pending = ingestor != null ? ingestor.pending(id) : List.of();
+        String pendingTag = ingestor != null ? ingestor.pendingTag(id) : "";
+
+        if (notModified(request, version.lastModified(), "post:" + version.tag() + ":" + pendingTag))
+            return null;
+
+        FragmentCache.RenderedPost rendered = fragmentCache.getPost(
+                id,
+                version.tag(),
+                () -> postService.getPost(id),
+                () -> commentService.getComments(id, null)
+        );
+        boolean canModify = canModify(rendered.authorEmail());
+        CommentCursor after = CommentCursor.decode(comments);
+
+        model.addAttribute("postId", id);
+        model.addAttribute("title", rendered.title());
+        model.addAttribute("canModify", canModify);
+        model.addAttribute("postBody", rendered.body());
+        model.addAttribute("commentsHtml", after == null
+                ? withPending(pending, version.commentCount(), rendered.comments(canModify))
+                : fragmentCache.renderComments(id, commentService.getComments(id, after), canModify));
         return "posts/view";
     }
 
+    @GetMapping("/{id}/comments")
+    public String comments(@PathVariable Long id,
+                           @RequestParam(required = false) String cursor,
+                           Model model) {
+
+        Slice<Comment> comments = commentService.getComments(id, CommentCursor.decode(cursor));
+        boolean canModify = canModify(postService.getPostVersion(id).authorEmail());
+
+        model.addAttribute("commentsHtml", fragmentCache.renderComments(id, comments, canModify));
+        return "posts/comments";
+    }
+
     @GetMapping("/create")
     public String createForm(Model model) {
-        List<User> authors = postService.getDistinctAuthorDetails();
+        List<AuthorSummary> authors = postService.getDistinctAuthorDetails();
 
         model.addAttribute("post", new Post());
         model.addAttribute("authors", authors);
@@ -73,10 +226,6 @@ public class PostController {
                        @RequestParam(required = false) String tagsInput,
                        @RequestParam(required = false) Long authorId) {
 
-        String email = SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
-
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
         if (auth.getAuthorities().stream()
@@ -85,8 +234,11 @@ public class PostController {
 
             post.setAuthor(userService.getUser(authorId));
 
+        } else if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            post.setAuthor(userService.getUserReference(user.getId()));
+
         } else {
-            post.setAuthor(userService.getUserByEmail(email));
+            post.setAuthor(userService.getUserByEmail(auth.getName()));
         }
 
         post.setTags(tagService.parseTags(tagsInput));
@@ -110,12 +262,13 @@ public class PostController {
                          @ModelAttribute Post incoming,
                          @RequestParam(required = false) String tagsInput) {
 
-        Post existing = postService.getPost(id);
-        existing.setTitle(incoming.getTitle());
-        existing.setExcerpt(incoming.getExcerpt());
-        existing.setContent(incoming.getContent());
-        existing.setTags(tagService.parseTags(tagsInput));
-        postService.save(existing);
+        // copied field by field so a bound author can't reassign the post
+        Post changes = new Post();
+        changes.setTitle(incoming.getTitle());
+        changes.setExcerpt(incoming.getExcerpt());
+        changes.setContent(incoming.getContent());
+        changes.setTags(tagService.parseTags(tagsInput));
+        postService.update(id, changes);
 
         return "redirect:/posts";
     }
@@ -134,6 +287,7 @@ public class PostController {
     }
 
     @GetMapping("/search")
+    @SqlBudget(statements = 10)
     public String searchResult(
             @RequestParam(required = false) String action,
             @RequestParam String type,
@@ -145,9 +299,19 @@ public class PostController {
             @RequestParam(required = false) String toDate,
             @RequestParam(required = false) String[] authorIds,
             @RequestParam(required = false) String tags,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean totals,
+            ServletWebRequest request,
             Model model) {
 
-        if ("search".equals(action) || "filter".equals(action)) page = 0;
+        if (notModified(request, contentVersion.pageLastModified(),
+                "search:" + contentVersion.current() + ":" + contentVersion.counters()))
+            return null;
+
+        if ("search".equals(action) || "filter".equals(action)) {
+            page = 0;
+            cursor = null;
+        }
 
         LocalDateTime from = postService.parseFromDate(fromDate);
         LocalDateTime to = postService.parseToDate(toDate);
@@ -156,32 +320,13 @@ public class PostController {
             tagList = null;
 
         List<Long> selectedAuthorIds = postService.parseAuthorIds(authorIds);
-        List<User> authors = postService.getDistinctAuthorDetails();
+        List<AuthorSummary> authors = postService.getDistinctAuthorDetails();
 
         if (selectedAuthorIds == null || selectedAuthorIds.isEmpty())
             selectedAuthorIds = null;
 
         model.addAttribute("keyword", keyword);
-        keyword = (keyword == null || keyword.isBlank())
-                ? null
-                : "%" + keyword.toLowerCase() + "%";
-
-        Page<Post> result = postService.search(
-                type,
-                keyword,
-                page,
-                size,
-                sortBy,
-                from,
-                to,
-                selectedAuthorIds,
-                tagList
-        );
-
         model.addAttribute("authors", authors);
-        model.addAttribute("posts", result.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", result.getTotalPages());
         model.addAttribute("size", size);
         model.addAttribute("type", type);
         model.addAttribute("sortBy", sortBy);
@@ -189,7 +334,41 @@ public class PostController {
         model.addAttribute("toDate", to);
         model.addAttribute("tags", tags);
         model.addAttribute("selectedAuthors", selectedAuthorIds);
-        model.addAttribute("totalItems", result.getTotalElements());
+        model.addAttribute("searchMode", true);
+
+        SearchCriteria criteria = SearchCriteria.of(type, keyword, sortBy, from, to, selectedAuthorIds, tagList);
+        PostCursor after = criteria.isRelevance() ? null : PostCursor.decode(cursor, criteria.sortBy());
+
+        if (after != null) {
+            Slice<PostSummary> slice = postService.scrollSearch(criteria, size, after);
+
+            model.addAttribute("posts", slice.getContent());
+            model.addAttribute("rows", rows(slice.getContent()));
+            model.addAttribute("currentPage", 0);
+            model.addAttribute("totalPages", 0);
+            model.addAttribute("nextCursor", nextCursor(criteria.sortBy(), slice));
+
+            return "posts/list";
+        }
+
+        Slice<PostSummary> result = postService.search(criteria, page, size);
+
+        model.addAttribute("posts", result.getContent());
+        model.addAttribute("rows", rows(result.getContent()));
+        model.addAttribute("currentPage", page);
+        model.addAttribute("totals", totals);
+        model.addAttribute("hasNext", result.hasNext());
+        model.addAttribute("nextCursor", nextCursor(criteria.sortBy(), result));
+
+        if (totals) {
+            SearchCount count = postService.countSearch(criteria);
+
+            model.addAttribute("totalPages", count.totalPages(size));
+            model.addAttribute("totalItems", count.value());
+            model.addAttribute("totalItemsLabel", count.label());
+        } else {
+            model.addAttribute("totalPages", 0);
+        }
 
         return "posts/list";
     }
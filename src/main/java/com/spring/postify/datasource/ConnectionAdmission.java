@@ -0,0 +1,62 @@
+package com.spring.postify.datasource;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Admits at most as many callers as the pool has connections and queues the rest fairly.
+// With virtual threads there is no request-thread cap in front of the pool any more, so a
+// burst would otherwise leave thousands of threads contending inside the pool itself; past
+// maxWaiting callers are turned away immediately instead of timing out one by one.
+public class ConnectionAdmission {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long timeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConnectionAdmission(int permits, int maxWaiting, Duration timeout) {
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiting = maxWaiting;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public void acquire() throws SQLException {
+
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "Connection admission queue is full (" + maxWaiting + " waiting)");
+        }
+
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("Timed out waiting for connection admission after "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for connection admission", e);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
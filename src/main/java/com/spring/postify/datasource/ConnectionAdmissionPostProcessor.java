@@ -0,0 +1,45 @@
+package com.spring.postify.datasource;
+
+import com.spring.postify.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Puts every Hikari pool behind a ConnectionAdmission sized to the pool. Ordered, so it runs
+// before the unordered post-processor that wraps the application DataSource for timing.
+public class ConnectionAdmissionPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<MetricsRegistry> metrics;
+    private final int maxWaiting;
+
+    public ConnectionAdmissionPostProcessor(ObjectProvider<MetricsRegistry> metrics, int maxWaiting) {
+        this.metrics = metrics;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (!(bean instanceof HikariDataSource hikari))
+            return bean;
+
+        ConnectionAdmission admission = new ConnectionAdmission(hikari.getMaximumPoolSize(), maxWaiting,
+                Duration.ofMillis(hikari.getConnectionTimeout()));
+        String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+
+        metrics.getObject().gauge("jdbc_admission_waiting", "Threads queued for connection admission",
+                admission::waiting, "pool", pool);
+        metrics.getObject().gauge("jdbc_admission_rejected", "Callers turned away by connection admission",
+                admission::rejected, "pool", pool);
+
+        return new AdmissionControlDataSource(hikari, admission);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
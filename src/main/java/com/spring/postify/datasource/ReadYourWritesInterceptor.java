@@ -0,0 +1,58 @@
+package com.spring.postify.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Keeps a client on the primary while it writes and for a short window afterwards,
+// so a redirect after a POST never reads from a replica that hasn't replayed the write yet
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String PRIMARY_UNTIL = ReadYourWritesInterceptor.class.getName() + ".primaryUntil";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowMillis;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // the session must exist before the response is committed by a redirect
+            request.getSession().setAttribute(PRIMARY_UNTIL, System.currentTimeMillis() + windowMillis);
+            ReplicaRoutingDataSource.pinToPrimary();
+            return true;
+        }
+
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute(PRIMARY_UNTIL) instanceof Long until) {
+            if (until > System.currentTimeMillis()) {
+                ReplicaRoutingDataSource.pinToPrimary();
+            } else {
+                session.removeAttribute(PRIMARY_UNTIL);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.setAttribute(PRIMARY_UNTIL, System.currentTimeMillis() + windowMillis);
+            }
+        }
+        ReplicaRoutingDataSource.unpin();
+    }
+}
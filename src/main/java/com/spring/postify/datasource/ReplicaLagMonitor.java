@@ -0,0 +1,61 @@
+package com.spring.postify.datasource;
+
+import com.spring.postify.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Polls the replica's replay lag and takes it out of rotation while it is behind or unreachable
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean available = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MetricsRegistry metrics) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        metrics.gauge("jdbc_replica_lag_seconds", "Replication lag reported by the replica", () -> lagSeconds);
+        metrics.gauge("jdbc_replica_available", "1 while read-only traffic is routed to the replica",
+                () -> available ? 1 : 0);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${postify.datasource.replica.lag-check-interval:5s}")
+    public void check() {
+
+        if (lagQuery == null || lagQuery.isBlank())
+            return;
+
+        boolean healthy;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            healthy = lagSeconds <= maxLagSeconds;
+        } catch (RuntimeException e) {
+            log.debug("Replica lag check failed", e);
+            healthy = false;
+        }
+
+        if (healthy != available) {
+            log.warn(healthy
+                    ? "Replica caught up ({} s behind), routing reads to it again"
+                    : "Replica is {} s behind or unreachable, routing reads to the primary", lagSeconds);
+        }
+        available = healthy;
+    }
+}
@@ -0,0 +1,58 @@
+package com.spring.postify.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+// Sends read-only transactions to the replica unless the request is pinned to the primary, the
+// replica is lagging, or content changed within the last max-lag. That last fence stops reads that
+// refill the version-keyed caches right after a write from storing what the replica hasn't replayed
+// yet under the new version. Must sit behind a LazyConnectionDataSourceProxy, otherwise the
+// connection is fetched before the transaction's read-only flag is visible.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaAvailable;
+    private final LongSupplier lastWriteMillis;
+    private final long fenceMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaAvailable,
+                                    LongSupplier lastWriteMillis, Duration fence) {
+        this.replicaAvailable = replicaAvailable;
+        this.lastWriteMillis = lastWriteMillis;
+        this.fenceMillis = fence.toMillis();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED.get() != null)
+            return Target.PRIMARY;
+
+        if (System.currentTimeMillis() - lastWriteMillis.getAsLong() < fenceMillis)
+            return Target.PRIMARY;
+
+        return replicaAvailable.getAsBoolean() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
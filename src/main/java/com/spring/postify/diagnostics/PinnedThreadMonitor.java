@@ -0,0 +1,77 @@
+package com.spring.postify.diagnostics;
+
+import com.spring.postify.metrics.LatencyHistogram;
+import com.spring.postify.metrics.MetricsRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Streams the JFR event the JDK raises when a virtual thread blocks while pinned to its carrier,
+// typically inside a synchronized block, and logs where it happened
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final LongAdder pinned;
+    private final LatencyHistogram pinnedTime;
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(Duration threshold, MetricsRegistry metrics) {
+        this.threshold = threshold;
+        this.pinned = metrics.counter("virtual_thread_pinned",
+                "Virtual threads that blocked while pinned to a carrier thread");
+        this.pinnedTime = metrics.histogram("virtual_thread_pinned_seconds",
+                "How long pinned virtual threads blocked their carrier");
+    }
+
+    @Override
+    public synchronized void start() {
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+
+        pinned.increment();
+        pinnedTime.record(event.getDuration().toNanos());
+
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+
+        log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n")));
+    }
+}
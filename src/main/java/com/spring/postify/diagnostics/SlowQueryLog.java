@@ -0,0 +1,50 @@
+package com.spring.postify.diagnostics;
+
+import com.spring.postify.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Every slow statement is counted, but only a sample is logged so a bad minute can't flood the log
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final LongAdder slowStatements;
+
+    public SlowQueryLog(MetricsRegistry metrics,
+                        @Value("${postify.sql.slow-threshold:250ms}") Duration threshold,
+                        @Value("${postify.sql.slow-sample-rate:0.1}") double sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.slowStatements = metrics.counter("jdbc_slow_statements",
+                "Statements slower than postify.sql.slow-threshold");
+    }
+
+    public void record(String sql, long nanos) {
+
+        if (nanos < thresholdNanos)
+            return;
+
+        slowStatements.increment();
+
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)
+            return;
+
+        String statement = sql == null ? "<batch>"
+                : sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+
+        log.warn("Slow statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), statement);
+    }
+}
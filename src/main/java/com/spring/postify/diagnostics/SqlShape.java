@@ -0,0 +1,35 @@
+package com.spring.postify.diagnostics;
+
+import com.spring.postify.cache.BoundedCache;
+
+import java.util.regex.Pattern;
+
+// Reduces a statement to its shape, so "WHERE id = 1" and "WHERE id = 2" (or padded IN lists) count as one query
+final class SqlShape {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final BoundedCache<String, String> SHAPES = new BoundedCache<>("sql-shapes", 2_000);
+
+    private SqlShape() {
+    }
+
+    static String of(String sql) {
+
+        if (sql == null)
+            return "<batch>";
+
+        return SHAPES.get(sql, SqlShape::normalize);
+    }
+
+    private static String normalize(String sql) {
+
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,103 @@
+package com.spring.postify.diagnostics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JDBC work done on the current thread while a recording is open, fed by TimedDataSource
+public class SqlStatistics {
+
+    public static final String ATTRIBUTE = SqlStatistics.class.getName();
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    // runs the work under its own recording and restores whatever was being recorded before
+    public static SqlStatistics capture(Runnable work) {
+
+        SqlStatistics previous = CURRENT.get();
+        SqlStatistics statistics = start();
+        try {
+            work.run();
+            return statistics;
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    static boolean recording() {
+        return CURRENT.get() != null;
+    }
+
+    static void recordStatement(String sql, long elapsedNanos) {
+
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics == null)
+            return;
+
+        statistics.statements++;
+        statistics.nanos += elapsedNanos;
+        statistics.shapes.merge(SqlShape.of(sql), 1, Integer::sum);
+    }
+
+    static void recordRow() {
+
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rows++;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long databaseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    // statement shapes executed at least threshold times, the usual signature of an N+1 load
+    public Map<String, Integer> repeated(int threshold) {
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+
+        shapes.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+
+        return repeated;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + databaseMillis() + " ms";
+    }
+}
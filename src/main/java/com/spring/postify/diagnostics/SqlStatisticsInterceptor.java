@@ -0,0 +1,133 @@
+package com.spring.postify.diagnostics;
+
+import com.spring.postify.metrics.MetricsRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+// Records the JDBC work of each request, enforces statement budgets and flags repeated same-shape queries
+@Component
+public class SqlStatisticsInterceptor implements HandlerInterceptor {
+
+    public static final String STATEMENTS_HEADER = "X-Statement-Count";
+    public static final String ROWS_HEADER = "X-Rows-Fetched";
+    public static final String TIME_HEADER = "X-Database-Time-Ms";
+    public static final String REPEATED_HEADER = "X-Repeated-Statements";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsInterceptor.class);
+
+    private static final int RECENT_VIOLATIONS = 50;
+
+    public record Violation(LocalDateTime at,
+                            String handler,
+                            String uri,
+                            int statements,
+                            int budget,
+                            long rows,
+                            long databaseMillis,
+                            Map<String, Integer> repeated) {
+    }
+
+    private final MetricsRegistry metrics;
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final Deque<Violation> recentViolations = new ArrayDeque<>();
+
+    public SqlStatisticsInterceptor(MetricsRegistry metrics,
+                                    @Value("${postify.sql.statement-budget:20}") int defaultBudget,
+                                    @Value("${postify.sql.repeat-threshold:5}") int repeatThreshold) {
+        this.metrics = metrics;
+        this.defaultBudget = defaultBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SqlStatistics.ATTRIBUTE, SqlStatistics.start());
+        return true;
+    }
+
+    // headers have to go out before the view renders, so they miss anything the template loads lazily;
+    // afterCompletion sees the full picture
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response,
+                           Object handler, ModelAndView modelAndView) {
+
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics == null)
+            return;
+
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.statements()));
+        response.setHeader(ROWS_HEADER, String.valueOf(statistics.rows()));
+        response.setHeader(TIME_HEADER, String.valueOf(statistics.databaseMillis()));
+        response.setHeader(REPEATED_HEADER, String.valueOf(statistics.repeated(repeatThreshold).size()));
+
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            modelAndView.addObject("statementCount", statistics.statements());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+
+        SqlStatistics statistics = SqlStatistics.current();
+        SqlStatistics.stop();
+
+        if (statistics == null || !(handler instanceof HandlerMethod method))
+            return;
+
+        String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        int budget = budgetOf(method);
+        Map<String, Integer> repeated = statistics.repeated(repeatThreshold);
+
+        if (statistics.statements() <= budget && repeated.isEmpty())
+            return;
+
+        if (statistics.statements() > budget) {
+            metrics.counter("sql_budget_exceeded", "Requests that issued more statements than their budget",
+                    "handler", name).increment();
+        }
+        if (!repeated.isEmpty()) {
+            metrics.counter("sql_repeated_statements", "Requests that repeated a statement shape (likely N+1)",
+                    "handler", name).increment();
+        }
+
+        log.warn("{} {} issued {} (budget {}), repeated: {}",
+                name, request.getRequestURI(), statistics, budget, repeated);
+
+        Violation violation = new Violation(LocalDateTime.now(), name, request.getRequestURI(),
+                statistics.statements(), budget, statistics.rows(), statistics.databaseMillis(), repeated);
+
+        synchronized (recentViolations) {
+            if (recentViolations.size() == RECENT_VIOLATIONS) {
+                recentViolations.removeLast();
+            }
+            recentViolations.addFirst(violation);
+        }
+    }
+
+    public List<Violation> recentViolations() {
+        synchronized (recentViolations) {
+            return List.copyOf(recentViolations);
+        }
+    }
+
+    public int budgetOf(HandlerMethod method) {
+        SqlBudget budget = method.getMethodAnnotation(SqlBudget.class);
+        return budget != null ? budget.statements() : defaultBudget;
+    }
+}
@@ -0,0 +1,134 @@
+package com.spring.postify.diagnostics;
+
+import com.spring.postify.metrics.LatencyHistogram;
+import com.spring.postify.metrics.MetricsRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+// Times every statement executed through the pool, hands slow ones to the SlowQueryLog and
+// feeds the SqlStatistics of the current request
+public class TimedDataSource extends DelegatingDataSource {
+
+    private static final Map<String, String> EXECUTE_KINDS = Map.of(
+            "executeQuery", "query",
+            "execute", "execute",
+            "executeUpdate", "update",
+            "executeLargeUpdate", "update",
+            "executeBatch", "batch",
+            "executeLargeBatch", "batch"
+    );
+
+    private final Map<String, LatencyHistogram> timers;
+    private final SlowQueryLog slowQueryLog;
+
+    public TimedDataSource(DataSource target, MetricsRegistry metrics, SlowQueryLog slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+        this.timers = Map.of(
+                "query", timer(metrics, "query"),
+                "execute", timer(metrics, "execute"),
+                "update", timer(metrics, "update"),
+                "batch", timer(metrics, "batch")
+        );
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" -> wrap((Statement) result, (String) args[0]);
+                case "createStatement" -> wrap((Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        return proxy(type, statement, (proxy, method, args) -> {
+            String kind = EXECUTE_KINDS.get(method.getName());
+            if (kind == null) {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            try {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                timers.get(kind).record(elapsed);
+                slowQueryLog.record(sql, elapsed);
+                SqlStatistics.recordStatement(sql, elapsed);
+            }
+        });
+    }
+
+    // rows are only counted while a recording is open, background jobs get the plain result set
+    private ResultSet wrap(ResultSet resultSet) {
+
+        if (!SqlStatistics.recording())
+            return resultSet;
+
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                SqlStatistics.recordRow();
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+
+        return type.cast(Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Timed[" + target + "]";
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static LatencyHistogram timer(MetricsRegistry metrics, String kind) {
+        return metrics.histogram("jdbc_statement_seconds", "Time spent executing JDBC statements", "kind", kind);
+    }
+}
@@ -0,0 +1,12 @@
+package com.spring.postify.dto;
+
+public record AuthorSummary(Long id, String name, long postCount) {
+
+    public AuthorSummary withPostCount(long postCount) {
+        return new AuthorSummary(id, name, postCount);
+    }
+
+    public AuthorSummary withName(String name) {
+        return new AuthorSummary(id, name, postCount);
+    }
+}
@@ -0,0 +1,10 @@
+package com.spring.postify.dto;
+
+import java.time.LocalDateTime;
+
+public record CommentExportRow(Long postId,
+                               String name,
+                               String email,
+                               String comment,
+                               LocalDateTime createdAt) {
+}
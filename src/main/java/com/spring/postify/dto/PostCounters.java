@@ -0,0 +1,6 @@
+package com.spring.postify.dto;
+
+public record PostCounters(Long postId,
+                           long commentCount,
+                           long viewCount) {
+}
@@ -0,0 +1,11 @@
+package com.spring.postify.dto;
+
+import java.time.LocalDateTime;
+
+public record PostExportRow(Long id,
+                            String title,
+                            String excerpt,
+                            String content,
+                            String authorEmail,
+                            LocalDateTime publishedAt) {
+}
@@ -0,0 +1,28 @@
+package com.spring.postify.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PostSummary(Long id,
+                          String title,
+                          String excerpt,
+                          String authorName,
+                          String authorEmail,
+                          LocalDateTime publishedAt,
+                          long commentCount,
+                          long viewCount,
+                          List<String> tags) {
+
+    public PostSummary(Long id, String title, String excerpt, String authorName,
+                       String authorEmail, LocalDateTime publishedAt, long commentCount, long viewCount) {
+        this(id, title, excerpt, authorName, authorEmail, publishedAt, commentCount, viewCount, List.of());
+    }
+
+    public PostSummary withTags(List<String> tags) {
+        return new PostSummary(id, title, excerpt, authorName, authorEmail, publishedAt, commentCount, viewCount, tags);
+    }
+
+    public PostSummary withCounters(long commentCount, long viewCount) {
+        return new PostSummary(id, title, excerpt, authorName, authorEmail, publishedAt, commentCount, viewCount, tags);
+    }
+}
@@ -0,0 +1,8 @@
+package com.spring.postify.dto;
+
+public interface PostTagName {
+
+    Long getPostId();
+
+    String getName();
+}
@@ -0,0 +1,26 @@
+package com.spring.postify.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public record PostVersion(Long postId,
+                          LocalDateTime updatedAt,
+                          String authorName,
+                          String authorEmail,
+                          LocalDateTime lastCommentAt,
+                          long commentCount) {
+
+    public long lastModified() {
+
+        LocalDateTime latest = updatedAt;
+
+        if (lastCommentAt != null && (latest == null || lastCommentAt.isAfter(latest)))
+            latest = lastCommentAt;
+
+        return latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public String tag() {
+        return postId + ":" + updatedAt + ":" + authorName + ":" + lastCommentAt + ":" + commentCount;
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring.postify.dto;
+
+public record SearchCount(long value, boolean capped) {
+
+    public static SearchCount of(long counted, int cap) {
+        return counted > cap ? new SearchCount(cap, true) : new SearchCount(counted, false);
+    }
+
+    public int totalPages(int size) {
+        return size <= 0 ? 0 : (int) ((value + size - 1) / size);
+    }
+
+    public String label() {
+        return capped ? value + "+" : String.valueOf(value);
+    }
+}
@@ -1,6 +1,8 @@
 package com.spring.postify.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,7 +13,8 @@ import java.util.Set;
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -31,7 +34,14 @@ public class Post {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    @Column(insertable = false, updatable = false)
+    private long commentCount;
+
+    @Column(insertable = false, updatable = false)
+    private long viewCount;
+
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "post_tags",
             joinColumns = @JoinColumn(name = "post_id"),
@@ -60,10 +70,11 @@ public class Post {
 
     @PrePersist
     public void prePersist(){
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-        this.publishedAt = LocalDateTime.now();
-        this.isPublished = true;
+        LocalDateTime now = LocalDateTime.now();
+        if (this.createdAt == null) this.createdAt = now;
+        if (this.updatedAt == null) this.updatedAt = now;
+        if (this.publishedAt == null) this.publishedAt = now;
+        if (this.isPublished == null) this.isPublished = true;
     }
 
     @PreUpdate
@@ -144,6 +155,14 @@ public class Post {
         this.updatedAt = updatedAt;
     }
 
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
     public Set<Tag> getTags() {
         return tags;
     }
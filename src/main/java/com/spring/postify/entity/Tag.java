@@ -2,6 +2,8 @@ package com.spring.postify.entity;
 
 import jakarta.persistence.*;
 import org.hibernate.action.internal.OrphanRemovalAction;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -9,10 +11,13 @@ import java.util.Set;
 
 @Entity
 @Table(name="tags")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Tag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tags_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -0,0 +1,443 @@
+package com.spring.postify.ingest;
+
+import com.spring.postify.cache.BoundedCache;
+import com.spring.postify.cache.ContentVersion;
+import com.spring.postify.cache.FragmentCache;
+import com.spring.postify.dto.CommentExportRow;
+import com.spring.postify.entity.Post;
+import com.spring.postify.metrics.LatencyHistogram;
+import com.spring.postify.metrics.MetricsRegistry;
+import com.spring.postify.repository.CommentRepository;
+import com.spring.postify.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind ingestion for new comments: a submission is journaled, queued and acknowledged
+// without touching the database, and a single writer inserts the queue in batches. Until a
+// comment is written it is served from memory, so its author sees it on the next page load.
+@Component
+@ConditionalOnProperty(name = "postify.comments.write-behind.enabled", havingValue = "true")
+public class CommentIngestor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentIngestor.class);
+
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    // below the web server's phases: the journal is open before requests arrive and stays open
+    // until the server has drained them
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final FragmentCache fragmentCache;
+    private final ContentVersion contentVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final CommentJournal journal;
+
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration enqueueTimeout;
+
+    private final BlockingQueue<PendingComment> queue;
+    private final Map<Long, Queue<PendingComment>> pending = new ConcurrentHashMap<>();
+    private final BoundedCache<Long, Boolean> knownPosts = new BoundedCache<>("known-posts", 10_000, Duration.ofMinutes(1));
+
+    private final ExecutorService overflowWriter;
+
+    private final LongAdder overflowed;
+    private final LongAdder dropped;
+    private final LatencyHistogram batchTime;
+
+    private volatile boolean running;
+    private Thread writer;
+    private List<PendingComment> recovered = List.of();
+
+    public CommentIngestor(PostRepository postRepository,
+                           CommentRepository commentRepository,
+                           FragmentCache fragmentCache,
+                           ContentVersion contentVersion,
+                           PlatformTransactionManager transactionManager,
+                           JsonMapper jsonMapper,
+                           MetricsRegistry metrics,
+                           @Value("${postify.comments.queue-capacity:10000}") int queueCapacity,
+                           @Value("${postify.comments.batch-size:200}") int batchSize,
+                           @Value("${postify.comments.linger:50ms}") Duration linger,
+                           @Value("${postify.comments.enqueue-timeout:100ms}") Duration enqueueTimeout,
+                           @Value("${postify.comments.journal:data/comments.journal}") Path journalFile) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.fragmentCache = fragmentCache;
+        this.contentVersion = contentVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new CommentJournal(journalFile, jsonMapper);
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.enqueueTimeout = enqueueTimeout;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("comment-overflow-");
+        threadFactory.setDaemon(true);
+        this.overflowWriter = Executors.newCachedThreadPool(threadFactory);
+
+        metrics.gauge("comment_queue_depth", "Comments accepted but not yet picked up by the writer", queue::size);
+        metrics.gauge("comment_journal_outstanding", "Comments in the journal not yet written to the database",
+                journal::outstanding);
+        this.overflowed = metrics.counter("comment_ingest_overflow",
+                "Comments written synchronously because the queue was full");
+        this.dropped = metrics.counter("comment_ingest_dropped",
+                "Queued comments rejected by the database, usually because the post was deleted");
+        this.batchTime = metrics.histogram("comment_batch_write_seconds", "Time to insert one batch of comments");
+    }
+
+    public void submit(Long postId, String name, String email, String text) {
+
+        if (isBlank(name) || isBlank(email) || isBlank(text) || !email.contains("@"))
+            throw new RuntimeException("Invalid comment");
+
+        if (knownPosts.get(postId, id -> postRepository.existsById(id) ? Boolean.TRUE : null) == null)
+            throw new RuntimeException("Post not found");
+
+        // truncated to what the timestamp column stores, so recovery can match written rows
+        PendingComment comment = new PendingComment(UUID.randomUUID().toString(), postId, name.trim(),
+                email.trim(), text, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+
+        // stopped, or stopping under us: nothing would write or replay the comment, so insert it now
+        if (!running || !journal.append(comment)) {
+            insert(List.of(comment));
+            return;
+        }
+        addPending(comment);
+
+        boolean queued = false;
+        try {
+            queued = running && queue.offer(comment, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // backpressure: once the queue is full the submitter pays for its own insert
+        if (!queued) {
+            overflowed.increment();
+            try {
+                writeOverflow(comment);
+            } catch (RuntimeException e) {
+                // the submitter sees the error, so don't replay it later
+                completed(List.of(comment));
+                throw e;
+            }
+        }
+    }
+
+    // on its own thread the insert gets a persistence context of its own; on the request thread it
+    // would join the open-in-view one and clear it under the request
+    private void writeOverflow(PendingComment comment) {
+
+        try {
+            CompletableFuture.runAsync(() -> write(List.of(comment)), overflowWriter).join();
+        } catch (RejectedExecutionException e) {
+            // shut down after the submitter checked running
+            write(List.of(comment));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    // newest first, matching the order comments are listed in
+    public List<PendingComment> pending(Long postId) {
+
+        Queue<PendingComment> comments = pending.get(postId);
+        if (comments == null || comments.isEmpty())
+            return List.of();
+
+        return comments.stream()
+                .sorted(Comparator.comparing(PendingComment::createdAt).reversed())
+                .toList();
+    }
+
+    public String pendingTag(Long postId) {
+
+        List<PendingComment> comments = pending(postId);
+        return comments.isEmpty() ? "" : comments.size() + ":" + comments.get(0).id();
+    }
+
+    // reading the journal opens it, so it happens before the first submission can append;
+    // writing the recovered comments to the database is left to the writer
+    @Override
+    public void start() {
+
+        recovered = journal.recover();
+        recovered.forEach(this::addPending);
+
+        running = true;
+        writer = new Thread(this::drain, "comment-writer");
+        writer.start();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+        overflowWriter.shutdown();
+        if (writer == null)
+            return;
+
+        try {
+            writer.join(STOP_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writer.isAlive()) {
+            log.warn("Comment writer did not finish, {} comments stay in the journal", journal.outstanding());
+            writer.interrupt();
+        } else {
+            journal.close();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+
+        replay(recovered);
+        recovered = List.of();
+
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+                long deadline = System.nanoTime() + linger.toNanos();
+
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0)
+                        break;
+
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null)
+                        batch.add(next);
+                }
+
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void replay(List<PendingComment> recovered) {
+
+        if (recovered.isEmpty())
+            return;
+
+        log.info("Replaying {} comments from the journal", recovered.size());
+
+        for (int from = 0; from < recovered.size(); from += batchSize) {
+            List<PendingComment> batch = recovered.subList(from, Math.min(from + batchSize, recovered.size()));
+
+            try {
+                writeWithRetry(withoutWritten(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // a crash between commit and acknowledgement leaves comments in the journal that are already stored
+    private List<PendingComment> withoutWritten(List<PendingComment> batch) throws InterruptedException {
+
+        while (true) {
+            try {
+                Set<Long> postIds = new HashSet<>();
+                LocalDateTime since = batch.get(0).createdAt();
+                for (PendingComment comment : batch) {
+                    postIds.add(comment.postId());
+                    if (comment.createdAt().isBefore(since))
+                        since = comment.createdAt();
+                }
+
+                Set<String> written = new HashSet<>();
+                for (CommentExportRow row : commentRepository.findExportRowsCreatedSince(postIds, since)) {
+                    written.add(row.postId() + "|" + row.email() + "|" + row.createdAt());
+                }
+
+                List<PendingComment> unwritten = new ArrayList<>();
+                List<PendingComment> duplicates = new ArrayList<>();
+                for (PendingComment comment : batch) {
+                    (written.contains(comment.postId() + "|" + comment.email() + "|" + comment.createdAt())
+                            ? duplicates : unwritten).add(comment);
+                }
+
+                completed(duplicates);
+                return unwritten;
+            } catch (RuntimeException e) {
+                log.warn("Could not check replayed comments, will retry", e);
+                Thread.sleep(RETRY_BACKOFF.toMillis());
+            }
+        }
+    }
+
+    private void writeWithRetry(List<PendingComment> batch) throws InterruptedException {
+
+        while (!batch.isEmpty()) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (rejected(e)) {
+                    isolateRejected(batch, e);
+                    return;
+                }
+                if (!running) {
+                    log.warn("Could not write {} comments, they stay in the journal", batch.size(), e);
+                    return;
+                }
+                log.warn("Could not write {} comments, will retry", batch.size(), e);
+                Thread.sleep(RETRY_BACKOFF.toMillis());
+            }
+        }
+    }
+
+    // retries one by one so the comments the database refuses don't hold back the rest of the batch
+    private void isolateRejected(List<PendingComment> batch, RuntimeException e) throws InterruptedException {
+
+        if (batch.size() > 1) {
+            for (PendingComment comment : batch) {
+                writeWithRetry(List.of(comment));
+            }
+            return;
+        }
+
+        PendingComment comment = batch.get(0);
+        dropped.increment();
+        log.warn("Dropping comment {} for post {}: {}", comment.id(), comment.postId(), e.getMessage());
+        knownPosts.invalidate(comment.postId());
+        completed(batch);
+    }
+
+    private static boolean rejected(RuntimeException e) {
+        return (e instanceof DataIntegrityViolationException)
+                || (EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e) instanceof DataIntegrityViolationException);
+    }
+
+    private void write(List<PendingComment> batch) {
+        insert(batch);
+        completed(batch);
+    }
+
+    private void insert(List<PendingComment> batch) {
+
+        long started = System.nanoTime();
+
+        Map<Long, Long> counts = transactionTemplate.execute(status -> {
+            Map<Long, Long> added = new LinkedHashMap<>();
+
+            for (PendingComment comment : batch) {
+                entityManager.persist(comment.toComment(entityManager.getReference(Post.class, comment.postId())));
+                added.merge(comment.postId(), 1L, Long::sum);
+            }
+            entityManager.flush();
+
+            added.forEach(postRepository::adjustCommentCount);
+            entityManager.clear();
+            return added;
+        });
+
+        batchTime.record(System.nanoTime() - started);
+
+        contentVersion.countersChanged();
+        counts.keySet().forEach(fragmentCache::invalidatePost);
+    }
+
+    private void completed(List<PendingComment> comments) {
+
+        if (comments.isEmpty())
+            return;
+
+        journal.acknowledge(comments.stream().map(PendingComment::id).toList());
+
+        // the removal and the empty check run under the map's lock for the post, so a comment
+        // added in between can't end up in a queue that is no longer in the map
+        for (PendingComment comment : comments) {
+            pending.computeIfPresent(comment.postId(), (postId, forPost) -> {
+                forPost.remove(comment);
+                return forPost.isEmpty() ? null : forPost;
+            });
+        }
+    }
+
+    private void addPending(PendingComment comment) {
+
+        pending.compute(comment.postId(), (postId, forPost) -> {
+            Queue<PendingComment> comments = forPost != null ? forPost : new ConcurrentLinkedQueue<>();
+            comments.add(comment);
+            return comments;
+        });
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
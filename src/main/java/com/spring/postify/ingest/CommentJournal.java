@@ -0,0 +1,186 @@
+package com.spring.postify.ingest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Append-only log of comments accepted but not yet written to the database. A line starting with
+// '+' holds a queued comment and one starting with '-' acknowledges a written one; whatever is
+// still unacknowledged when the application starts is replayed.
+public class CommentJournal implements AutoCloseable {
+
+    private static final long COMPACT_BYTES = 16 * 1024 * 1024;
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+    private final Map<String, PendingComment> outstanding = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+
+    public CommentJournal(Path file, JsonMapper jsonMapper) {
+        this.file = file;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // reads what a previous run left behind and compacts the file down to it
+    public List<PendingComment> recover() {
+
+        lock.lock();
+        try {
+            outstanding.clear();
+
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith("+")) {
+                            // a torn last line from a crash mid-append was never acknowledged to the client
+                            PendingComment comment = parse(line.substring(1));
+                            if (comment != null)
+                                outstanding.put(comment.id(), comment);
+                        } else if (line.startsWith("-")) {
+                            outstanding.remove(line.substring(1));
+                        }
+                    }
+                }
+            }
+
+            rewrite();
+            return new ArrayList<>(outstanding.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover comment journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // returns once the comment is on disk, or false if the journal has been closed
+    public boolean append(PendingComment comment) {
+
+        lock.lock();
+        try {
+            if (channel == null)
+                return false;
+
+            write("+" + jsonMapper.writeValueAsString(comment) + "\n");
+            channel.force(false);
+            outstanding.put(comment.id(), comment);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to comment journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void acknowledge(Collection<String> ids) {
+
+        if (ids.isEmpty())
+            return;
+
+        lock.lock();
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (String id : ids) {
+                outstanding.remove(id);
+                lines.append('-').append(id).append('\n');
+            }
+
+            // closed: the next recovery finds these rows already written and skips them
+            if (channel == null)
+                return;
+
+            if (outstanding.isEmpty() || channel.size() > COMPACT_BYTES) {
+                rewrite();
+            } else {
+                write(lines.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not acknowledge comments in journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int outstanding() {
+
+        lock.lock();
+        try {
+            return outstanding.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PendingComment parse(String json) {
+        try {
+            return jsonMapper.readValue(json, PendingComment.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void write(String lines) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void rewrite() throws IOException {
+
+        if (channel != null) {
+            channel.close();
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel = out;
+            for (PendingComment comment : outstanding.values()) {
+                write("+" + jsonMapper.writeValueAsString(comment) + "\n");
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
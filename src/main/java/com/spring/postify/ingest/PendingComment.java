@@ -0,0 +1,18 @@
+package com.spring.postify.ingest;
+
+import com.spring.postify.entity.Comment;
+import com.spring.postify.entity.Post;
+
+import java.time.LocalDateTime;
+
+public record PendingComment(String id,
+                             Long postId,
+                             String name,
+                             String email,
+                             String comment,
+                             LocalDateTime createdAt) {
+
+    public Comment toComment(Post post) {
+        return new Comment(name, email, comment, post, createdAt, createdAt);
+    }
+}
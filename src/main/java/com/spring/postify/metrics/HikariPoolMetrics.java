@@ -0,0 +1,64 @@
+package com.spring.postify.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HikariPoolMetrics implements MetricsTrackerFactory {
+
+    private final MetricsRegistry metrics;
+
+    public HikariPoolMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+
+        metrics.gauge("jdbc_connections_active", "Connections currently borrowed from the pool",
+                stats::getActiveConnections, "pool", poolName);
+        metrics.gauge("jdbc_connections_idle", "Idle connections in the pool",
+                stats::getIdleConnections, "pool", poolName);
+        metrics.gauge("jdbc_connections_pending", "Threads waiting for a connection",
+                stats::getPendingThreads, "pool", poolName);
+        metrics.gauge("jdbc_connections_total", "Open connections in the pool",
+                stats::getTotalConnections, "pool", poolName);
+        metrics.gauge("jdbc_connections_max", "Maximum size of the pool",
+                stats::getMaxConnections, "pool", poolName);
+
+        LatencyHistogram acquire = metrics.histogram("jdbc_connection_acquire_seconds",
+                "Time spent waiting to borrow a connection", "pool", poolName);
+        LatencyHistogram usage = metrics.histogram("jdbc_connection_usage_seconds",
+                "Time a connection was held before being returned", "pool", poolName);
+        LatencyHistogram creation = metrics.histogram("jdbc_connection_creation_seconds",
+                "Time taken to open a physical connection", "pool", poolName);
+        LongAdder timeouts = metrics.counter("jdbc_connection_timeouts",
+                "Borrow attempts that timed out", "pool", poolName);
+
+        return new IMetricsTracker() {
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creation.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
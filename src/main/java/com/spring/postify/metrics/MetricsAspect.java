@@ -0,0 +1,72 @@
+package com.spring.postify.metrics;
+
+import com.spring.postify.search.SearchCriteria;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.spring.postify.repository";
+
+    private record RepositoryMethod(Class<?> type, Method method) {
+    }
+
+    private final MetricsRegistry metrics;
+    private final Map<RepositoryMethod, LatencyHistogram> repositoryTimers = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        RepositoryMethod key = new RepositoryMethod(joinPoint.getTarget().getClass(),
+                ((MethodSignature) joinPoint.getSignature()).getMethod());
+
+        return time(repositoryTimers.computeIfAbsent(key, this::repositoryTimer), joinPoint);
+    }
+
+    @Around("execution(* com.spring.postify.service.PostService.*(..)) && args(criteria, ..)")
+    public Object timeSearch(ProceedingJoinPoint joinPoint, SearchCriteria criteria) throws Throwable {
+
+        LatencyHistogram timer = metrics.histogram("postify_search_seconds", "Post search latency by shape",
+                "operation", joinPoint.getSignature().getName(),
+                "type", criteria.type(),
+                "sort", criteria.sortBy());
+
+        return time(timer, joinPoint);
+    }
+
+    private Object time(LatencyHistogram timer, ProceedingJoinPoint joinPoint) throws Throwable {
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    private LatencyHistogram repositoryTimer(RepositoryMethod key) {
+
+        String repository = ClassUtils.getAllInterfacesForClassAsSet(key.type()).stream()
+                .filter(type -> type.getPackageName().equals(REPOSITORY_PACKAGE))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(key.type().getSimpleName());
+
+        return metrics.histogram("repository_method_seconds", "Spring Data repository call latency",
+                "repository", repository, "method", key.method().getName());
+    }
+}
@@ -0,0 +1,130 @@
+package com.spring.postify.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+// In-process metrics exposed in the Prometheus text format at /diagnostics/metrics
+@Component
+public class MetricsRegistry {
+
+    private enum Type {
+        HISTOGRAM, COUNTER, GAUGE
+    }
+
+    private record Family(String name, String help, Type type, Map<String, Object> series) {
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) series(name, help, Type.HISTOGRAM, labels, LatencyHistogram::new);
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) series(name, help, Type.COUNTER, labels, LongAdder::new);
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series().put(labels(labels), value);
+    }
+
+    public String scrape() {
+
+        StringBuilder out = new StringBuilder();
+
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ')
+                    .append(family.type().name().toLowerCase()).append('\n');
+
+            for (Map.Entry<String, Object> series : family.series().entrySet()) {
+                switch (family.type()) {
+                    case HISTOGRAM -> writeHistogram(out, family.name(), series.getKey(), (LatencyHistogram) series.getValue());
+                    case COUNTER -> writeSample(out, family.name() + "_total", series.getKey(), ((LongAdder) series.getValue()).sum());
+                    case GAUGE -> writeSample(out, family.name(), series.getKey(), ((DoubleSupplier) series.getValue()).getAsDouble());
+                }
+            }
+        }
+
+        return out.toString();
+    }
+
+    private Object series(String name, String help, Type type, String[] labels,
+                          Supplier<Object> factory) {
+        return family(name, help, type).series().computeIfAbsent(labels(labels), key -> factory.get());
+    }
+
+    private Family family(String name, String help, Type type) {
+
+        Family family = families.computeIfAbsent(name,
+                n -> new Family(n, help, type, new ConcurrentSkipListMap<>()));
+
+        if (family.type() != type)
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type());
+
+        return family;
+    }
+
+    private void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+
+        long[] counts = histogram.cumulativeCounts();
+
+        for (int i = 0; i < counts.length; i++) {
+            String le = i < LatencyHistogram.BUCKETS.length ? String.valueOf(LatencyHistogram.BUCKETS[i]) : "+Inf";
+            String bucketLabels = labels.isEmpty() ? "le=\"" + le + "\"" : labels + ",le=\"" + le + "\"";
+            writeSample(out, name + "_bucket", bucketLabels, counts[i]);
+        }
+
+        writeSample(out, name + "_sum", labels, histogram.sumSeconds());
+        writeSample(out, name + "_count", labels, histogram.count());
+        writeSample(out, name + "_max", labels, histogram.maxSeconds());
+    }
+
+    private void writeSample(StringBuilder out, String name, String labels, double value) {
+
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    // labels come in name/value pairs and are rendered once, so the rendered form doubles as the series key
+    private static String labels(String[] pairs) {
+
+        if (pairs.length % 2 != 0)
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+
+        StringBuilder labels = new StringBuilder();
+
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(pairs[i]).append("=\"").append(escape(pairs[i + 1])).append('"');
+        }
+
+        return labels.toString();
+    }
+
+    private static String escape(String value) {
+
+        if (value == null)
+            return "";
+
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,38 @@
+package com.spring.postify.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START = RequestTimingInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry metrics;
+
+    public RequestTimingInterceptor(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+
+        if (!(handler instanceof HandlerMethod method) || !(request.getAttribute(START) instanceof Long start))
+            return;
+
+        String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        String status = ex != null ? "error" : String.valueOf(response.getStatus());
+
+        metrics.histogram("http_server_requests_seconds", "Handler latency including view rendering",
+                        "handler", name, "method", request.getMethod(), "status", status)
+                .record(System.nanoTime() - start);
+    }
+}
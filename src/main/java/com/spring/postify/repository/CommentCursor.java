@@ -0,0 +1,39 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.entity.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public record CommentCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public static CommentCursor after(Comment comment) {
+        return new CommentCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    public static CommentCursor decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 2);
+
+            if (parts.length != 2)
+                return null;
+
+            return new CommentCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[0]));
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = id + SEPARATOR + createdAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,62 @@
 package com.spring.postify.repository;
 
+import com.spring.postify.dto.CommentExportRow;
 import com.spring.postify.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByPostIdOrderByCreatedAtDesc(Long postId);
+    List<Comment> findByPostIdOrderByCreatedAtDescIdDesc(Long postId, Limit limit);
 
-}
\ No newline at end of file
+    @Query("""
+        SELECT c FROM Comment c
+        WHERE c.post.id = :postId
+        AND (c.createdAt < :createdAt
+           OR (c.createdAt = :createdAt AND c.id < :id))
+        ORDER BY c.createdAt DESC, c.id DESC
+    """)
+    List<Comment> findByPostIdAfter(
+            @Param("postId") Long postId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query("""
+        SELECT new com.spring.postify.dto.CommentExportRow(
+            c.post.id, c.name, c.email, c.comment, c.createdAt)
+        FROM Comment c
+        WHERE c.post.id IN :postIds
+        ORDER BY c.post.id, c.createdAt, c.id
+    """)
+    List<CommentExportRow> findExportRowsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("""
+        SELECT new com.spring.postify.dto.CommentExportRow(
+            c.post.id, c.name, c.email, c.comment, c.createdAt)
+        FROM Comment c
+        WHERE c.post.id IN :postIds
+        AND c.createdAt >= :since
+    """)
+    List<CommentExportRow> findExportRowsCreatedSince(
+            @Param("postIds") Collection<Long> postIds,
+            @Param("since") LocalDateTime since
+    );
+
+    // reads the foreign key column only, null when the comment is missing or belongs to no post
+    @Query("SELECT c.post.id FROM Comment c WHERE c.id = :id")
+    Long findPostIdById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :id")
+    int removeById(@Param("id") Long id);
+
+}
@@ -0,0 +1,66 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.dto.PostSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public record PostCursor(String sortBy, String key, Long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    // a date is never encoded empty, so an empty key stands for a post without one
+    private static final String NO_DATE = "";
+
+    public static PostCursor after(String sortBy, PostSummary post) {
+
+        String key = switch (sortBy) {
+            case "title" -> post.title() != null ? post.title() : "";
+            case "author" -> post.authorName() != null ? post.authorName() : "";
+            default -> post.publishedAt() != null ? post.publishedAt().toString() : null;
+        };
+
+        return new PostCursor(sortBy, key, post.id());
+    }
+
+    public static PostCursor decode(String cursor, String sortBy) {
+
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+
+            if (parts.length != 3 || !parts[0].equals(sortBy))
+                return null;
+
+            PostCursor result = new PostCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+
+            if (!result.isDateKey())
+                return result;
+
+            if (NO_DATE.equals(result.key()))
+                return new PostCursor(result.sortBy(), null, result.id());
+
+            result.publishedAt();
+            return result;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + (key != null ? key : NO_DATE);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isDateKey() {
+        return !"title".equals(sortBy) && !"author".equals(sortBy);
+    }
+
+    public LocalDateTime publishedAt() {
+        return key != null ? LocalDateTime.parse(key) : null;
+    }
+}
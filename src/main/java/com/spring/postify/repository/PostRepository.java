@@ -1,67 +1,149 @@
 package com.spring.postify.repository;
 
+import com.spring.postify.dto.AuthorSummary;
+import com.spring.postify.dto.PostCounters;
+import com.spring.postify.dto.PostExportRow;
+import com.spring.postify.dto.PostSummary;
+import com.spring.postify.dto.PostTagName;
+import com.spring.postify.dto.PostVersion;
 import com.spring.postify.entity.Post;
-import com.spring.postify.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
 
-    @Query("SELECT DISTINCT p.author FROM Post p ORDER BY p.author.name")
-    List<User> findDistinctAuthors();
+    @Query("""
+        SELECT new com.spring.postify.dto.AuthorSummary(a.id, a.name, COUNT(p))
+        FROM Post p
+        JOIN p.author a
+        GROUP BY a.id, a.name
+    """)
+    List<AuthorSummary> findAuthorSummaries();
+
+    List<Post> findByAuthorId(Long authorId);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT p FROM Post p")
+    Slice<Post> findIndexPage(Pageable pageable);
 
     @Query("""
-        SELECT DISTINCT p FROM Post p 
-        JOIN p.tags t
+        SELECT new com.spring.postify.dto.PostVersion(
+            p.id, p.updatedAt, a.name, a.email,
+            (SELECT MAX(c.updatedAt) FROM Comment c WHERE c.post = p),
+            p.commentCount)
+        FROM Post p
+        LEFT JOIN p.author a
+        WHERE p.id = :id
+    """)
+    Optional<PostVersion> findVersionById(@Param("id") Long id);
+
+    @Query(value = """
+        SELECT p.id FROM Post p
+        WHERE p.tags IS NOT EMPTY
+    """, countQuery = """
+        SELECT COUNT(p) FROM Post p
+        WHERE p.tags IS NOT EMPTY
     """)
-    Page<Post> listPosts(Pageable pageable);
+    Page<Long> listPostIds(Pageable pageable);
 
     @Query("""
-            SELECT p FROM Post p
-            WHERE p.publishedAt BETWEEN :from AND :to
-            AND (:authorIds IS NULL OR p.author.id IN :authorIds)
-            AND (
-                :tagList IS NULL
-                OR EXISTS (
-                    SELECT 1 FROM p.tags t2
-                    WHERE LOWER(t2.name) IN :tagList
-                )
-            )
-            AND (
-                :keyword IS NULL
-                OR (
-                    (:type = 'all' AND (
-                        LOWER(p.title) LIKE :keyword
-                     OR LOWER(p.content) LIKE :keyword
-                     OR LOWER(p.author.name) LIKE :keyword
-                     OR EXISTS (
-                            SELECT 1 FROM p.tags t3
-                            WHERE LOWER(t3.name) LIKE :keyword
-                     )
-                    ))
-                    OR (:type = 'title'   AND LOWER(p.title) LIKE :keyword)
-                    OR (:type = 'content' AND LOWER(p.content) LIKE :keyword)
-                    OR (:type = 'author'  AND LOWER(p.author.name) LIKE :keyword)
-                    OR (:type = 'tags' AND EXISTS(
-                            SELECT 1 FROM p.tags t4
-                            WHERE LOWER(t4.name) LIKE :keyword
-                    ))
-                )
-            )
-            """)
-    Page<Post> searchEverything(
-            @Param("type") String type,
-            @Param("keyword") String keyword,
-            @Param("from") LocalDateTime from,
-            @Param("to") LocalDateTime to,
-            @Param("authorIds") List<Long> authorIds,
-            @Param("tagList") List<String> tagList,
-            Pageable pageable
+        SELECT p.id FROM Post p
+        WHERE p.tags IS NOT EMPTY
+        AND (p.publishedAt < :publishedAt
+           OR (p.publishedAt = :publishedAt AND p.id < :id))
+        ORDER BY p.publishedAt DESC NULLS FIRST, p.id DESC
+    """)
+    List<Long> listPostIdsAfter(
+            @Param("publishedAt") LocalDateTime publishedAt,
+            @Param("id") Long id,
+            Limit limit
     );
-}
\ No newline at end of file
+
+    // undated posts sort first, so after one of them come the rest of the undated ones, then all dated ones
+    @Query("""
+        SELECT p.id FROM Post p
+        WHERE p.tags IS NOT EMPTY
+        AND ((p.publishedAt IS NULL AND p.id < :id)
+           OR p.publishedAt IS NOT NULL)
+        ORDER BY p.publishedAt DESC NULLS FIRST, p.id DESC
+    """)
+    List<Long> listPostIdsAfterUndated(
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query("""
+        SELECT new com.spring.postify.dto.PostSummary(
+            p.id, p.title, p.excerpt, a.name, a.email, p.publishedAt, p.commentCount, p.viewCount)
+        FROM Post p
+        LEFT JOIN p.author a
+        WHERE p.id IN :ids
+    """)
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new com.spring.postify.dto.PostCounters(p.id, p.commentCount, p.viewCount)
+        FROM Post p
+        WHERE p.id IN :ids
+    """)
+    List<PostCounters> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT p.id AS postId, t.name AS name FROM Post p
+        JOIN p.tags t
+        WHERE p.id IN :ids
+        ORDER BY t.name
+    """)
+    List<PostTagName> findTagNamesByPostIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.spring.postify.dto.PostExportRow(
+            p.id, p.title, p.excerpt, p.content, a.email, p.publishedAt)
+        FROM Post p
+        LEFT JOIN p.author a
+        ORDER BY p.id
+    """)
+    Stream<PostExportRow> streamForExport();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Post p
+        SET p.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.post = p)
+        WHERE p.id IN :ids
+    """)
+    int refreshCommentCounts(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    @Query(value = """
+        UPDATE posts p SET view_count = p.view_count + v.delta
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:deltas AS bigint[])) AS v(id, delta)
+        WHERE p.id = v.id
+    """, nativeQuery = true)
+    int addViewCounts(@Param("ids") Long[] ids, @Param("deltas") Long[] deltas);
+}
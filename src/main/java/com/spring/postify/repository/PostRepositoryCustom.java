@@ -0,0 +1,14 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.search.SearchCriteria;
+
+import java.util.List;
+
+public interface PostRepositoryCustom {
+
+    List<Long> search(SearchCriteria criteria, long offset, int limit);
+
+    List<Long> scrollSearch(SearchCriteria criteria, PostCursor after, int limit);
+
+    long countSearch(SearchCriteria criteria, int cap);
+}
@@ -0,0 +1,49 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.search.SearchCriteria;
+import com.spring.postify.search.SearchQueryCompiler;
+import com.spring.postify.search.SearchQueryCompiler.CompiledSearch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SearchQueryCompiler compiler;
+
+    public PostRepositoryCustomImpl(SearchQueryCompiler compiler) {
+        this.compiler = compiler;
+    }
+
+    @Override
+    public List<Long> search(SearchCriteria criteria, long offset, int limit) {
+        TypedQuery<Long> query = createQuery(compiler.compileIds(criteria, null), limit);
+        query.setFirstResult(Math.toIntExact(offset));
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Long> scrollSearch(SearchCriteria criteria, PostCursor after, int limit) {
+        return createQuery(compiler.compileIds(criteria, after), limit).getResultList();
+    }
+
+    @Override
+    public long countSearch(SearchCriteria criteria, int cap) {
+        CompiledSearch compiled = compiler.compileCount(criteria, cap);
+        TypedQuery<Long> query = entityManager.createQuery(compiled.jpql(), Long.class);
+        compiled.parameters().forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    private TypedQuery<Long> createQuery(CompiledSearch compiled, int limit) {
+        TypedQuery<Long> query = entityManager.createQuery(compiled.jpql(), Long.class);
+        compiled.parameters().forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query;
+    }
+}
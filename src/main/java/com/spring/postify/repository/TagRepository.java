@@ -1,14 +1,29 @@
 package com.spring.postify.repository;
 
-import com.spring.postify.entity.Post;
 import com.spring.postify.entity.Tag;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 
-    Optional<Tag> findByNameIgnoreCase(String name);
-}
\ No newline at end of file
+    @Query("SELECT t FROM Tag t WHERE LOWER(t.name) IN :keys")
+    List<Tag> findByNameKeys(@Param("keys") Collection<String> keys);
+
+    // declaring the table keeps Hibernate from dropping every cache region after a native write
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tags"))
+    @Query(value = """
+        INSERT INTO tags (name, created_at, updated_at)
+        SELECT n, now(), now() FROM unnest(CAST(:names AS text[])) AS n
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIgnoringDuplicates(@Param("names") String[] names);
+}
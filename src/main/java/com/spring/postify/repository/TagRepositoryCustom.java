@@ -0,0 +1,11 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.entity.Tag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepositoryCustom {
+
+    List<Tag> findAllCached(Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.entity.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // unlike findAllById this goes through the second-level cache and only queries the misses
+    @Override
+    public List<Tag> findAllCached(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .findMultiple(Tag.class, List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -4,8 +4,13 @@ import com.spring.postify.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("select u from User u where email = :email")
     User findUserByEmail(String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
 }
\ No newline at end of file
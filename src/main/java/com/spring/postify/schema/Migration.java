@@ -0,0 +1,32 @@
+package com.spring.postify.schema;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public record Migration(int version, String description, String checksum, Resource script) {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    public static Migration from(Resource script) throws IOException {
+
+        Matcher matcher = FILE_NAME.matcher(String.valueOf(script.getFilename()));
+
+        if (!matcher.matches())
+            throw new IllegalStateException("Invalid migration file name: " + script.getFilename());
+
+        try (InputStream in = script.getInputStream()) {
+            return new Migration(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    DigestUtils.md5DigestAsHex(StreamUtils.copyToByteArray(in)),
+                    script
+            );
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.spring.postify.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+
+    private final DataSource dataSource;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        migrate();
+    }
+
+    public int migrate() throws IOException, SQLException {
+
+        List<Migration> migrations = findMigrations();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("""
+                            CREATE TABLE IF NOT EXISTS schema_version (
+                                version      INT PRIMARY KEY,
+                                description  VARCHAR(200) NOT NULL,
+                                checksum     VARCHAR(32) NOT NULL,
+                                installed_at TIMESTAMP NOT NULL
+                            )
+                            """);
+                    statement.execute("LOCK TABLE schema_version IN EXCLUSIVE MODE");
+                }
+
+                Map<Integer, String> applied = appliedChecksums(connection);
+                validate(migrations, applied);
+
+                int count = 0;
+
+                for (Migration migration : migrations) {
+                    if (applied.containsKey(migration.version()))
+                        continue;
+
+                    log.info("Applying schema migration V{} ({})", migration.version(), migration.description());
+                    ScriptUtils.executeSqlScript(connection, migration.script());
+                    record(connection, migration);
+                    count++;
+                }
+
+                connection.commit();
+
+                if (count == 0)
+                    log.info("Schema is up to date at version {}", migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version());
+
+                return count;
+            } catch (RuntimeException | SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private List<Migration> findMigrations() throws IOException {
+
+        List<Migration> migrations = new ArrayList<>();
+
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            migrations.add(Migration.from(resource));
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version())
+                throw new IllegalStateException("Duplicate schema migration version V" + migrations.get(i).version());
+        }
+
+        return migrations;
+    }
+
+    private void validate(List<Migration> migrations, Map<Integer, String> applied) {
+
+        Map<Integer, Migration> known = new HashMap<>();
+        migrations.forEach(m -> known.put(m.version(), m));
+
+        for (Map.Entry<Integer, String> entry : applied.entrySet()) {
+            Migration migration = known.get(entry.getKey());
+
+            if (migration == null)
+                throw new IllegalStateException("Database has schema version V" + entry.getKey()
+                        + " which is unknown to this application");
+
+            if (!migration.checksum().equals(entry.getValue()))
+                throw new IllegalStateException("Schema migration V" + entry.getKey()
+                        + " has changed since it was applied");
+        }
+    }
+
+    private Map<Integer, String> appliedChecksums(Connection connection) throws SQLException {
+
+        Map<Integer, String> applied = new HashMap<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+
+        return applied;
+    }
+
+    private void record(Connection connection, Migration migration) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum, installed_at) VALUES (?, ?, ?, ?)")) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setString(3, migration.checksum());
+            statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+        }
+    }
+}
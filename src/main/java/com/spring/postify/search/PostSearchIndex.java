@@ -0,0 +1,416 @@
+package com.spring.postify.search;
+
+import com.spring.postify.dto.PostTagName;
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.Tag;
+import com.spring.postify.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+public class PostSearchIndex {
+
+    public enum Field {
+        TITLE(3.0),
+        CONTENT(1.0),
+        AUTHOR(1.5),
+        TAGS(2.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+
+        public static List<Field> forType(String type) {
+            if (type == null)
+                return List.of(values());
+
+            return switch (type) {
+                case "title" -> List.of(TITLE);
+                case "content" -> List.of(CONTENT);
+                case "author" -> List.of(AUTHOR);
+                case "tags" -> List.of(TAGS);
+                default -> List.of(values());
+            };
+        }
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private record IndexedPost(Long id,
+                               Long authorId,
+                               LocalDateTime publishedAt,
+                               Set<String> tagNames,
+                               Map<Field, Map<String, Integer>> termFrequencies,
+                               Map<Field, Integer> lengths) {
+    }
+
+    private record ScoredPost(IndexedPost post, double score) {
+    }
+
+    private static final class Snapshot {
+
+        private final Map<Field, Map<String, Map<Long, Integer>>> postings = new EnumMap<>(Field.class);
+        private final Map<Field, Long> totalLengths = new EnumMap<>(Field.class);
+        private final Map<Long, IndexedPost> documents = new HashMap<>();
+
+        Snapshot() {
+            for (Field field : Field.values()) {
+                postings.put(field, new HashMap<>());
+                totalLengths.put(field, 0L);
+            }
+        }
+
+        void add(IndexedPost document) {
+
+            for (Field field : Field.values()) {
+                for (Map.Entry<String, Integer> entry : document.termFrequencies().get(field).entrySet()) {
+                    postings.get(field)
+                            .computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                            .put(document.id(), entry.getValue());
+                }
+                totalLengths.merge(field, (long) document.lengths().get(field), Long::sum);
+            }
+
+            documents.put(document.id(), document);
+        }
+
+        void remove(Long postId) {
+
+            IndexedPost existing = documents.remove(postId);
+            if (existing == null)
+                return;
+
+            for (Field field : Field.values()) {
+                Map<String, Map<Long, Integer>> fieldPostings = postings.get(field);
+
+                for (String term : existing.termFrequencies().get(field).keySet()) {
+                    Map<Long, Integer> posting = fieldPostings.get(term);
+                    if (posting != null) {
+                        posting.remove(postId);
+                        if (posting.isEmpty()) {
+                            fieldPostings.remove(term);
+                        }
+                    }
+                }
+
+                totalLengths.merge(field, (long) -existing.lengths().get(field), Long::sum);
+            }
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PostRepository postRepository;
+    private final TextAnalyzer analyzer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    // both guarded by lock; while a rebuild scans, changes are also recorded here (null for a
+    // removal) and replayed onto the new snapshot, since the scan may have read older rows
+    private Snapshot current = new Snapshot();
+    private Map<Long, IndexedPost> changedDuringRebuild;
+
+    public PostSearchIndex(PostRepository postRepository, TextAnalyzer analyzer) {
+        this.postRepository = postRepository;
+        this.analyzer = analyzer;
+    }
+
+    // searches keep using the old snapshot until the new one is complete
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Snapshot rebuilt = null;
+            try {
+                rebuilt = scan();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Map.Entry<Long, IndexedPost> change : changedDuringRebuild.entrySet()) {
+                            rebuilt.remove(change.getKey());
+                            if (change.getValue() != null)
+                                rebuilt.add(change.getValue());
+                        }
+                        current = rebuilt;
+                    }
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot scan() {
+
+        Snapshot rebuilt = new Snapshot();
+        Slice<Post> batch = postRepository.findIndexPage(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+
+        while (true) {
+            Map<Long, List<String>> tagNames = tagNamesByPostId(batch.getContent());
+            for (Post post : batch) {
+                rebuilt.add(document(post, tagNames.getOrDefault(post.getId(), List.of())));
+            }
+            entityManager.clear();
+
+            if (!batch.hasNext())
+                return rebuilt;
+
+            batch = postRepository.findIndexPage(batch.nextPageable());
+        }
+    }
+
+    public void index(Post post) {
+
+        if (post == null || post.getId() == null)
+            return;
+
+        List<String> tagNames = new ArrayList<>();
+        if (post.getTags() != null) {
+            for (Tag tag : post.getTags()) {
+                if (tag != null)
+                    tagNames.add(tag.getName());
+            }
+        }
+
+        put(post.getId(), document(post, tagNames));
+    }
+
+    public void remove(Long postId) {
+        put(postId, null);
+    }
+
+    // runs once the rename has committed, so it reads from a transaction of its own
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void reindexAuthor(Long authorId) {
+
+        List<Post> posts = postRepository.findByAuthorId(authorId);
+        Map<Long, List<String>> tagNames = tagNamesByPostId(posts);
+
+        for (Post post : posts) {
+            put(post.getId(), document(post, tagNames.getOrDefault(post.getId(), List.of())));
+        }
+    }
+
+    public void removeAuthor(Long authorId) {
+
+        lock.writeLock().lock();
+        try {
+            List<Long> postIds = current.documents.values().stream()
+                    .filter(p -> authorId.equals(p.authorId()))
+                    .map(IndexedPost::id)
+                    .toList();
+
+            postIds.forEach(postId -> change(postId, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long postId, IndexedPost document) {
+
+        lock.writeLock().lock();
+        try {
+            change(postId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void change(Long postId, IndexedPost document) {
+
+        current.remove(postId);
+        if (document != null)
+            current.add(document);
+
+        if (changedDuringRebuild != null)
+            changedDuringRebuild.put(postId, document);
+    }
+
+    private Map<Long, List<String>> tagNamesByPostId(List<Post> posts) {
+
+        if (posts.isEmpty())
+            return Map.of();
+
+        return postRepository.findTagNamesByPostIdIn(posts.stream().map(Post::getId).toList()).stream()
+                .collect(Collectors.groupingBy(PostTagName::getPostId,
+                        Collectors.mapping(PostTagName::getName, Collectors.toList())));
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return current.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String type,
+                             String query,
+                             LocalDateTime from,
+                             LocalDateTime to,
+                             List<Long> authorIds,
+                             List<String> tags) {
+
+        List<String> terms = analyzer.analyze(query);
+
+        if (terms.isEmpty())
+            return List.of();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, IndexedPost> documents = current.documents;
+            int documentCount = documents.size();
+
+            for (Field field : Field.forType(type)) {
+
+                Map<String, Map<Long, Integer>> fieldPostings = current.postings.get(field);
+                double averageLength = documentCount == 0
+                        ? 0
+                        : (double) current.totalLengths.get(field) / documentCount;
+
+                for (String term : new HashSet<>(terms)) {
+
+                    Map<Long, Integer> posting = fieldPostings.get(term);
+                    if (posting == null)
+                        continue;
+
+                    double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+
+                    for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                        int length = documents.get(entry.getKey()).lengths().getOrDefault(field, 0);
+                        double tf = entry.getValue();
+                        double norm = averageLength == 0 ? 1 : length / averageLength;
+                        double score = field.weight * idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * norm));
+
+                        scores.merge(entry.getKey(), score, Double::sum);
+                    }
+                }
+            }
+
+            List<ScoredPost> ranked = new ArrayList<>();
+
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                IndexedPost post = documents.get(entry.getKey());
+                if (matchesFilters(post, from, to, authorIds, tags)) {
+                    ranked.add(new ScoredPost(post, entry.getValue()));
+                }
+            }
+
+            ranked.sort(Comparator.comparingDouble(ScoredPost::score).reversed()
+                    .thenComparing(s -> s.post().publishedAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(s -> s.post().id(), Comparator.reverseOrder()));
+
+            return ranked.stream().map(s -> s.post().id()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matchesFilters(IndexedPost post,
+                                   LocalDateTime from,
+                                   LocalDateTime to,
+                                   List<Long> authorIds,
+                                   List<String> tags) {
+
+        if (from != null && (post.publishedAt() == null || post.publishedAt().isBefore(from)))
+            return false;
+
+        if (to != null && (post.publishedAt() == null || post.publishedAt().isAfter(to)))
+            return false;
+
+        if (authorIds != null && !authorIds.contains(post.authorId()))
+            return false;
+
+        if (tags != null && tags.stream().noneMatch(post.tagNames()::contains))
+            return false;
+
+        return true;
+    }
+
+    private IndexedPost document(Post post, Collection<String> tags) {
+
+        Map<Field, String> text = new EnumMap<>(Field.class);
+        text.put(Field.TITLE, post.getTitle());
+        text.put(Field.CONTENT, post.getContent());
+        text.put(Field.AUTHOR, post.getAuthor() != null ? post.getAuthor().getName() : null);
+
+        Set<String> tagNames = new HashSet<>();
+        for (String tag : tags) {
+            if (tag != null) {
+                tagNames.add(tag.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        text.put(Field.TAGS, String.join(" ", tagNames));
+
+        Map<Field, Map<String, Integer>> termFrequencies = new EnumMap<>(Field.class);
+        Map<Field, Integer> lengths = new EnumMap<>(Field.class);
+
+        for (Field field : Field.values()) {
+            List<String> terms = analyzer.analyze(text.get(field));
+            Map<String, Integer> frequencies = new HashMap<>();
+
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+
+            termFrequencies.put(field, frequencies);
+            lengths.put(field, terms.size());
+        }
+
+        return new IndexedPost(
+                post.getId(),
+                post.getAuthor() != null ? post.getAuthor().getId() : null,
+                post.getPublishedAt(),
+                tagNames,
+                termFrequencies,
+                lengths
+        );
+    }
+}
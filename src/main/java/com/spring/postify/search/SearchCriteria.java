@@ -0,0 +1,81 @@
+package com.spring.postify.search;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public record SearchCriteria(String type,
+                             String keyword,
+                             String sortBy,
+                             LocalDateTime from,
+                             LocalDateTime to,
+                             List<Long> authorIds,
+                             List<String> tags) {
+
+    private static final Set<String> TYPES = Set.of("all", "title", "content", "author", "tags");
+    private static final Set<String> SORTS = Set.of("latest", "oldest", "title", "author", "relevance");
+
+    public static SearchCriteria of(String type,
+                                    String keyword,
+                                    String sortBy,
+                                    LocalDateTime from,
+                                    LocalDateTime to,
+                                    List<Long> authorIds,
+                                    List<String> tags) {
+
+        String normalizedKeyword = keyword == null || keyword.isBlank()
+                ? null
+                : keyword.trim().toLowerCase(Locale.ROOT);
+
+        String normalizedSort = SORTS.contains(sortBy) ? sortBy : "latest";
+        if ("relevance".equals(normalizedSort) && normalizedKeyword == null)
+            normalizedSort = "latest";
+
+        List<Long> normalizedAuthors = authorIds == null ? List.of() : authorIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+
+        List<String> normalizedTags = tags == null ? List.of() : tags.stream()
+                .filter(Objects::nonNull)
+                .map(t -> t.trim().toLowerCase(Locale.ROOT))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+
+        return new SearchCriteria(
+                TYPES.contains(type) ? type : "all",
+                normalizedKeyword,
+                normalizedSort,
+                from,
+                to,
+                normalizedAuthors.isEmpty() ? null : normalizedAuthors,
+                normalizedTags.isEmpty() ? null : normalizedTags
+        );
+    }
+
+    public boolean isRelevance() {
+        return "relevance".equals(sortBy);
+    }
+
+    public String likePattern() {
+        return keyword == null ? null : "%" + keyword + "%";
+    }
+
+    // without a keyword the type matches nothing, so it is left out of the key
+    public String cacheKey() {
+        return String.join("|",
+                isRelevance() ? "relevance" : "like",
+                keyword == null ? "" : type,
+                keyword == null ? "" : keyword,
+                String.valueOf(from),
+                String.valueOf(to),
+                authorIds == null ? "" : authorIds.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                tags == null ? "" : String.join(",", tags));
+    }
+}
@@ -0,0 +1,175 @@
+package com.spring.postify.search;
+
+import com.spring.postify.repository.PostCursor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SearchQueryCompiler {
+
+    public record CompiledSearch(String jpql, Map<String, Object> parameters) {
+    }
+
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+
+    public CompiledSearch compileIds(SearchCriteria criteria, PostCursor after) {
+
+        boolean hasCursor = after != null;
+        boolean hasCursorKey = hasCursor && after.key() != null;
+
+        String shape = "ids|" + shape(criteria) + "|" + criteria.sortBy() + "|" + hasCursor + "|" + hasCursorKey;
+        String jpql = plans.computeIfAbsent(shape, s -> buildIds(criteria, hasCursor, hasCursorKey));
+
+        Map<String, Object> parameters = parameters(criteria);
+        if (hasCursorKey)
+            parameters.put("cursorKey", after.isDateKey() ? after.publishedAt() : after.key());
+        if (hasCursor)
+            parameters.put("cursorId", after.id());
+
+        return new CompiledSearch(jpql, parameters);
+    }
+
+    // counts at most cap + 1 matches, so the caller can tell an exact total from "more than cap";
+    // Hibernate only accepts a limited subquery with an order, p.id is the cheapest one
+    public CompiledSearch compileCount(SearchCriteria criteria, int cap) {
+
+        String shape = "count|" + shape(criteria);
+        String jpql = plans.computeIfAbsent(shape, s -> "SELECT COUNT(*) FROM ("
+                + select("p.id AS id", criteria, false) + " ORDER BY p.id LIMIT :countLimit) matches");
+
+        Map<String, Object> parameters = parameters(criteria);
+        parameters.put("countLimit", cap + 1);
+
+        return new CompiledSearch(jpql, parameters);
+    }
+
+    public int planCount() {
+        return plans.size();
+    }
+
+    private String shape(SearchCriteria criteria) {
+        return (criteria.keyword() != null ? criteria.type() : "-")
+                + (criteria.from() != null ? "F" : "")
+                + (criteria.to() != null ? "T" : "")
+                + (criteria.authorIds() != null ? "A" : "")
+                + (criteria.tags() != null ? "G" : "");
+    }
+
+    private String buildIds(SearchCriteria criteria, boolean hasCursor, boolean hasCursorKey) {
+
+        String sortBy = criteria.sortBy();
+        StringBuilder jpql = select("p.id", criteria, "author".equals(sortBy));
+
+        String sortKey = switch (sortBy) {
+            case "title" -> "COALESCE(p.title, '')";
+            case "author" -> "COALESCE(a.name, '')";
+            default -> "p.publishedAt";
+        };
+
+        boolean descending = !"oldest".equals(sortBy) && !"title".equals(sortBy) && !"author".equals(sortBy);
+        String comparison = descending ? "<" : ">";
+
+        // only the date can be null; undated posts come first newest-first and last oldest-first,
+        // which is where Postgres puts them for the (published_at DESC, id DESC) index either way
+        boolean nullable = "p.publishedAt".equals(sortKey);
+        String nulls = !nullable ? "" : descending ? " NULLS FIRST" : " NULLS LAST";
+
+        // a search without filters has no WHERE clause yet, and nested ones only appear inside it
+        String conjunction = jpql.indexOf(" WHERE ") < 0 ? " WHERE " : " AND ";
+
+        if (hasCursorKey) {
+            jpql.append(conjunction).append("(").append(sortKey).append(" ").append(comparison).append(" :cursorKey")
+                    .append(" OR (").append(sortKey).append(" = :cursorKey AND p.id ")
+                    .append(comparison).append(" :cursorId)")
+                    .append(nullable && !descending ? " OR p.publishedAt IS NULL)" : ")");
+        } else if (hasCursor) {
+            jpql.append(conjunction).append(descending
+                    ? "((p.publishedAt IS NULL AND p.id < :cursorId) OR p.publishedAt IS NOT NULL)"
+                    : "(p.publishedAt IS NULL AND p.id > :cursorId)");
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ").append(sortKey).append(direction).append(nulls)
+                .append(", p.id").append(direction);
+
+        return jpql.toString();
+    }
+
+    private StringBuilder select(String projection, SearchCriteria criteria, boolean joinAuthor) {
+
+        String type = criteria.type();
+        boolean hasKeyword = criteria.keyword() != null;
+        boolean matchAuthorName = hasKeyword && ("all".equals(type) || "author".equals(type));
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(projection).append(" FROM Post p");
+
+        if (joinAuthor || matchAuthorName)
+            jpql.append(" LEFT JOIN p.author a");
+
+        String conjunction = " WHERE ";
+
+        if (criteria.from() != null) {
+            jpql.append(conjunction).append("p.publishedAt >= :from");
+            conjunction = " AND ";
+        }
+
+        if (criteria.to() != null) {
+            jpql.append(conjunction).append("p.publishedAt <= :to");
+            conjunction = " AND ";
+        }
+
+        if (criteria.authorIds() != null) {
+            jpql.append(conjunction).append("p.author.id IN :authorIds");
+            conjunction = " AND ";
+        }
+
+        if (criteria.tags() != null) {
+            jpql.append(conjunction).append("EXISTS (SELECT 1 FROM p.tags t2 WHERE LOWER(t2.name) IN :tagList)");
+            conjunction = " AND ";
+        }
+
+        if (hasKeyword) {
+            String titleMatch = "LOWER(p.title) LIKE :keyword";
+            String contentMatch = "LOWER(p.content) LIKE :keyword";
+            String authorMatch = "LOWER(a.name) LIKE :keyword";
+            String tagMatch = "EXISTS (SELECT 1 FROM p.tags t3 WHERE LOWER(t3.name) LIKE :keyword)";
+
+            String match = switch (type) {
+                case "title" -> titleMatch;
+                case "content" -> contentMatch;
+                case "author" -> authorMatch;
+                case "tags" -> tagMatch;
+                default -> titleMatch + " OR " + contentMatch + " OR " + authorMatch + " OR " + tagMatch;
+            };
+
+            jpql.append(conjunction).append("(").append(match).append(")");
+        }
+
+        return jpql;
+    }
+
+    private Map<String, Object> parameters(SearchCriteria criteria) {
+
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (criteria.from() != null)
+            parameters.put("from", criteria.from());
+
+        if (criteria.to() != null)
+            parameters.put("to", criteria.to());
+
+        if (criteria.authorIds() != null)
+            parameters.put("authorIds", criteria.authorIds());
+
+        if (criteria.tags() != null)
+            parameters.put("tagList", criteria.tags());
+
+        if (criteria.keyword() != null)
+            parameters.put("keyword", criteria.likePattern());
+
+        return parameters;
+    }
+}
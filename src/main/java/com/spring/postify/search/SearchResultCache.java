@@ -0,0 +1,51 @@
+package com.spring.postify.search;
+
+import com.spring.postify.cache.BoundedCache;
+import com.spring.postify.cache.CacheStatistics;
+import com.spring.postify.dto.SearchCount;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Post ids and totals for repeated searches, keyed by the normalized criteria. Entries are never
+// removed on writes: anything that changes which posts match bumps the version in the key instead,
+// and the stale entries age out of the LRU.
+@Component
+public class SearchResultCache {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final BoundedCache<String, List<Long>> pages = new BoundedCache<>("search-pages", 2_000, TTL);
+    private final BoundedCache<String, List<Long>> rankings = new BoundedCache<>("search-rankings", 200, TTL);
+    private final BoundedCache<String, SearchCount> counts = new BoundedCache<>("search-counts", 1_000, TTL);
+
+    public List<Long> page(SearchCriteria criteria, int page, int size, Supplier<List<Long>> ids) {
+        return pages.get(key(criteria) + "|" + criteria.sortBy() + "|" + page + "|" + size, k -> List.copyOf(ids.get()));
+    }
+
+    // relevance results are ranked in memory in one go, so the whole ranking is kept and paged from
+    public List<Long> ranking(SearchCriteria criteria, Supplier<List<Long>> ids) {
+        return rankings.get(key(criteria), k -> List.copyOf(ids.get()));
+    }
+
+    public SearchCount count(SearchCriteria criteria, Supplier<SearchCount> count) {
+        return counts.get(key(criteria), k -> count.get());
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public List<CacheStatistics> statistics() {
+        return List.of(CacheStatistics.of(pages), CacheStatistics.of(rankings), CacheStatistics.of(counts));
+    }
+
+    private String key(SearchCriteria criteria) {
+        return version.get() + "|" + criteria.cacheKey();
+    }
+}
@@ -0,0 +1,108 @@
+package com.spring.postify.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Component
+public class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+            "there", "these", "they", "this", "to", "was", "will", "with"
+    );
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    public List<String> analyze(String text) {
+
+        List<String> terms = new ArrayList<>();
+
+        if (text == null || text.isBlank())
+            return terms;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+
+        return terms;
+    }
+
+    public String stem(String token) {
+
+        if (token.length() <= MIN_STEM_LENGTH || !Character.isLetter(token.charAt(0)))
+            return token;
+
+        String word = token;
+
+        if (word.endsWith("ies") && word.length() > 4) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("sses")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        word = stripSuffix(word, "ingly");
+        word = stripSuffix(word, "edly");
+        word = stripSuffix(word, "ing");
+        word = stripSuffix(word, "ed");
+        word = stripSuffix(word, "ly");
+        word = stripSuffix(word, "ment");
+        word = stripSuffix(word, "ness");
+        word = stripSuffix(word, "ation");
+
+        if (word.endsWith("e") && word.length() > MIN_STEM_LENGTH)
+            word = word.substring(0, word.length() - 1);
+
+        return word;
+    }
+
+    private String stripSuffix(String word, String suffix) {
+
+        if (!word.endsWith(suffix))
+            return word;
+
+        String stem = word.substring(0, word.length() - suffix.length());
+
+        if (stem.length() < MIN_STEM_LENGTH || !containsVowel(stem))
+            return word;
+
+        int last = stem.length() - 1;
+        if (last > 0 && stem.charAt(last) == stem.charAt(last - 1)
+                && "lsz".indexOf(stem.charAt(last)) < 0 && !isVowel(stem.charAt(last))) {
+            stem = stem.substring(0, last);
+        }
+
+        return stem;
+    }
+
+    private boolean containsVowel(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isVowel(s.charAt(i)))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean isVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.spring.postify.security;
+
+import com.spring.postify.cache.BoundedCache;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.UserRepository;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+
+    // Cached as plain values: Spring Security erases credentials on the
+    // UserDetails it is handed, so every lookup gets a fresh instance.
+    private record Account(Long id, String email, String password, String role) {
+    }
+
+    private final UserRepository userRepository;
+
+    private final BoundedCache<String, Account> accounts =
+            new BoundedCache<>("user-details", 10_000, Duration.ofMinutes(10));
+
+    public CachedUserDetailsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+
+        Account account = accounts.get(email, key -> {
+            User user = userRepository.findUserByEmail(key);
+            return user == null ? null : new Account(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+        });
+
+        if (account == null)
+            throw new UsernameNotFoundException("User not found");
+
+        return new AuthenticatedUser(
+                account.id(),
+                account.email(),
+                account.password(),
+                account.role() == null ? List.of() : List.of(new SimpleGrantedAuthority(account.role()))
+        );
+    }
+
+    public void evict(String email) {
+        if (email != null)
+            accounts.invalidate(email);
+    }
+}
@@ -0,0 +1,108 @@
+package com.spring.postify.service;
+
+import com.spring.postify.dto.AuthorSummary;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.PostRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class AuthorDirectory {
+
+    private static final Comparator<AuthorSummary> BY_NAME =
+            Comparator.comparing(AuthorSummary::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(AuthorSummary::id);
+
+    private final PostRepository postRepository;
+
+    private final Map<Long, AuthorSummary> authors = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile List<AuthorSummary> snapshot;
+
+    public AuthorDirectory(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    public List<AuthorSummary> getAuthors() {
+
+        List<AuthorSummary> current = snapshot;
+        if (current != null)
+            return current;
+
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                authors.clear();
+                for (AuthorSummary author : postRepository.findAuthorSummaries()) {
+                    authors.put(author.id(), author);
+                }
+                publish();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void postAdded(User author) {
+
+        if (author == null || author.getId() == null)
+            return;
+
+        update(() -> authors.merge(author.getId(),
+                new AuthorSummary(author.getId(), author.getName(), 1),
+                (existing, added) -> existing.withPostCount(existing.postCount() + 1)));
+    }
+
+    public void postRemoved(Long authorId) {
+
+        if (authorId == null)
+            return;
+
+        update(() -> authors.computeIfPresent(authorId,
+                (id, existing) -> existing.postCount() > 1
+                        ? existing.withPostCount(existing.postCount() - 1)
+                        : null));
+    }
+
+    public void authorRenamed(Long authorId, String name) {
+        update(() -> authors.computeIfPresent(authorId, (id, existing) -> existing.withName(name)));
+    }
+
+    public void authorRemoved(Long authorId) {
+        update(() -> authors.remove(authorId));
+    }
+
+    public void invalidate() {
+
+        lock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(Runnable change) {
+
+        lock.lock();
+        try {
+            if (snapshot == null)
+                return;
+
+            change.run();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        snapshot = authors.values().stream().sorted(BY_NAME).toList();
+    }
+}
@@ -1,35 +1,104 @@
 package com.spring.postify.service;
 
+import com.spring.postify.cache.ContentVersion;
+import com.spring.postify.cache.FragmentCache;
 import com.spring.postify.entity.Comment;
+import com.spring.postify.repository.CommentCursor;
 import com.spring.postify.repository.CommentRepository;
+import com.spring.postify.repository.PostRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class CommentService {
 
+    private static final int PAGE_SIZE = 20;
+
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final FragmentCache fragmentCache;
+    private final ContentVersion contentVersion;
 
-    public CommentService(CommentRepository commentRepository){
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository,
+                          FragmentCache fragmentCache, ContentVersion contentVersion){
         this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.fragmentCache = fragmentCache;
+        this.contentVersion = contentVersion;
     }
 
-    public List<Comment> getCommentsByPost(Long postId){
-        return commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
+    @Transactional(readOnly = true)
+    public Slice<Comment> getComments(Long postId, CommentCursor after){
+
+        Limit limit = Limit.of(PAGE_SIZE + 1);
+        List<Comment> comments = after == null
+                ? commentRepository.findByPostIdOrderByCreatedAtDescIdDesc(postId, limit)
+                : commentRepository.findByPostIdAfter(postId, after.createdAt(), after.id(), limit);
+
+        boolean hasNext = comments.size() > PAGE_SIZE;
+        List<Comment> content = hasNext ? comments.subList(0, PAGE_SIZE) : comments;
+
+        return new SliceImpl<>(content, PageRequest.of(0, PAGE_SIZE), hasNext);
     }
 
+    @Transactional
     public Comment save(Comment comment){
-        return commentRepository.save(comment);
+        boolean created = comment.getId() == null;
+        Comment saved = commentRepository.save(comment);
+        if (saved.getPost() != null) {
+            Long postId = saved.getPost().getId();
+            if (created) {
+                postRepository.adjustCommentCount(postId, 1);
+            }
+            AfterCommit.run(() -> {
+                if (created) {
+                    contentVersion.countersChanged();
+                }
+                fragmentCache.invalidatePost(postId);
+            });
+        }
+        return saved;
     }
 
+    // not read-only, see PostService.getPost
     public Comment get(Long id){
         return commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
     }
 
-    public void delete(Long id){
-        commentRepository.deleteById(id);
+    @Transactional
+    public Comment update(Long id, String name, String email, String text){
+        Comment comment = get(id);
+        comment.setName(name);
+        comment.setEmail(email);
+        comment.setComment(text);
+        if (comment.getPost() != null) {
+            Long postId = comment.getPost().getId();
+            AfterCommit.run(() -> fragmentCache.invalidatePost(postId));
+        }
+        return comment;
+    }
+
+    // returns the id of the post the comment belonged to, so callers don't need to load it first;
+    // null when there was no such comment (a repeated delete) or it belonged to no post
+    @Transactional
+    public Long delete(Long id){
+        Long postId = commentRepository.findPostIdById(id);
+        if (commentRepository.removeById(id) == 0 || postId == null)
+            return null;
+
+        postRepository.adjustCommentCount(postId, -1);
+        AfterCommit.run(() -> {
+            contentVersion.countersChanged();
+            fragmentCache.invalidatePost(postId);
+        });
+        return postId;
     }
 
 }
\ No newline at end of file
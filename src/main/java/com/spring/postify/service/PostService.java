@@ -1,104 +1,286 @@
 package com.spring.postify.service;
 
+import com.spring.postify.cache.BoundedCache;
+import com.spring.postify.cache.ContentVersion;
+import com.spring.postify.cache.FragmentCache;
+import com.spring.postify.dto.AuthorSummary;
+import com.spring.postify.dto.PostCounters;
+import com.spring.postify.dto.PostSummary;
+import com.spring.postify.dto.PostTagName;
+import com.spring.postify.dto.PostVersion;
+import com.spring.postify.dto.SearchCount;
 import com.spring.postify.entity.Post;
 import com.spring.postify.entity.User;
+import com.spring.postify.repository.PostCursor;
 import com.spring.postify.repository.PostRepository;
+import com.spring.postify.search.PostSearchIndex;
+import com.spring.postify.search.SearchCriteria;
+import com.spring.postify.search.SearchResultCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    private static final int SEARCH_COUNT_CAP = 1000;
+
     private final PostRepository postRepository;
     private final TagService tagService;
+    private final PostSearchIndex searchIndex;
+    private final AuthorDirectory authorDirectory;
+    private final ContentVersion contentVersion;
+    private final FragmentCache fragmentCache;
+    private final SearchResultCache searchResults;
+    private final ViewCounter viewCounter;
+
+    // keyed on the content version; the TTL bounds how long anything read before a write replayed can survive
+    private final BoundedCache<String, PostSummary> summaries =
+            new BoundedCache<>("post-summaries", 5_000, Duration.ofMinutes(5));
 
     @Autowired
-    public PostService(PostRepository postRepository, TagService tagService) {
+    public PostService(PostRepository postRepository, TagService tagService,
+                       PostSearchIndex searchIndex, AuthorDirectory authorDirectory,
+                       ContentVersion contentVersion, FragmentCache fragmentCache,
+                       SearchResultCache searchResults, ViewCounter viewCounter) {
         this.postRepository = postRepository;
         this.tagService = tagService;
+        this.searchIndex = searchIndex;
+        this.authorDirectory = authorDirectory;
+        this.contentVersion = contentVersion;
+        this.fragmentCache = fragmentCache;
+        this.searchResults = searchResults;
+        this.viewCounter = viewCounter;
     }
 
+    // not read-only: with open-in-view the loaded entity stays in the request's persistence context,
+    // and one loaded read-only is skipped by dirty checking if the same request later edits it
     public Post getPost(Long id) {
         return postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post Not Found"));
     }
 
+    @Transactional(readOnly = true)
+    public PostVersion getPostVersion(Long id) {
+        return postRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Post Not Found"));
+    }
+
     public Post save(Post post) {
-        return postRepository.save(post);
+        boolean created = post.getId() == null;
+        Post saved = postRepository.save(post);
+        searchIndex.index(saved);
+        searchResults.invalidate();
+        contentVersion.bump();
+        fragmentCache.invalidatePost(saved.getId());
+        if (created) {
+            authorDirectory.postAdded(saved.getAuthor());
+        }
+        return saved;
     }
 
+    // keeps the current author unless the update names one
+    @Transactional
     public Post update(Long id, Post updatedPost) {
 
         Post post = getPost(id);
+        User previousAuthor = post.getAuthor();
 
         post.setTitle(updatedPost.getTitle());
         post.setExcerpt(updatedPost.getExcerpt());
         post.setContent(updatedPost.getContent());
-        post.setAuthor(updatedPost.getAuthor());
+        if (updatedPost.getAuthor() != null) {
+            post.setAuthor(updatedPost.getAuthor());
+        }
         post.setTags(updatedPost.getTags());
         post.setUpdatedAt(LocalDateTime.now());
 
-        return postRepository.save(post);
+        AfterCommit.run(() -> {
+            searchIndex.index(post);
+            searchResults.invalidate();
+            contentVersion.bump();
+            fragmentCache.invalidatePost(post.getId());
+
+            Long previousAuthorId = previousAuthor != null ? previousAuthor.getId() : null;
+            Long newAuthorId = post.getAuthor() != null ? post.getAuthor().getId() : null;
+            if (!Objects.equals(previousAuthorId, newAuthorId)) {
+                authorDirectory.postRemoved(previousAuthorId);
+                authorDirectory.postAdded(post.getAuthor());
+            }
+        });
+
+        return post;
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PostSummary> search(SearchCriteria criteria, int page, int size) {
+
+        if (criteria.isRelevance())
+            return searchByRelevance(criteria, page, size);
+
+        Pageable pageable = PageRequest.of(page, size);
+        List<Long> ids = searchResults.page(criteria, page, size,
+                () -> postRepository.search(criteria, pageable.getOffset(), size + 1));
+
+        boolean hasNext = ids.size() > size;
+        List<Long> content = hasNext ? ids.subList(0, size) : ids;
+
+        return new SliceImpl<>(loadSummaries(content), pageable, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchCount countSearch(SearchCriteria criteria) {
+
+        return searchResults.count(criteria, () -> criteria.isRelevance()
+                ? SearchCount.of(rankedIds(criteria).size(), Integer.MAX_VALUE)
+                : SearchCount.of(postRepository.countSearch(criteria, SEARCH_COUNT_CAP), SEARCH_COUNT_CAP));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PostSummary> scrollSearch(SearchCriteria criteria, int size, PostCursor after) {
+
+        List<Long> ids = postRepository.scrollSearch(criteria, after, size + 1);
+
+        return toSlice(ids, size);
+    }
+
+    private Slice<PostSummary> toSlice(List<Long> ids, int size) {
+        boolean hasNext = ids.size() > size;
+        List<Long> content = hasNext ? ids.subList(0, size) : ids;
+        return new SliceImpl<>(loadSummaries(content), PageRequest.of(0, size), hasNext);
+    }
+
+    private List<PostSummary> loadSummaries(List<Long> ids) {
+
+        if (ids.isEmpty())
+            return List.of();
+
+        long version = contentVersion.current();
+        Map<Long, PostSummary> summariesById = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            PostSummary cached = summaries.get(id + ":" + version);
+            if (cached != null) {
+                summariesById.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, List<String>> tagsByPostId = postRepository.findTagNamesByPostIdIn(missing).stream()
+                    .collect(Collectors.groupingBy(PostTagName::getPostId,
+                            Collectors.mapping(PostTagName::getName, Collectors.toList())));
+
+            for (PostSummary summary : postRepository.findSummariesByIdIn(missing)) {
+                PostSummary withTags = summary.withTags(tagsByPostId.getOrDefault(summary.id(), List.of()));
+                summaries.put(summary.id() + ":" + version, withTags);
+                summariesById.put(summary.id(), withTags);
+            }
+        }
+
+        // counters change far more often than content, so they are read fresh instead of being cached
+        Map<Long, PostCounters> counters = postRepository.findCountersByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostCounters::postId, c -> c));
+
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .map(summary -> withCounters(summary, counters.get(summary.id())))
+                .toList();
     }
 
-    public Page<Post> search(
-            String type,
-            String keyword,
-            int page,
-            int size,
-            String sortBy,
-            LocalDateTime from,
-            LocalDateTime to,
-            List<Long> authorIds,
-            List<String> tags
-    ) {
+    private PostSummary withCounters(PostSummary summary, PostCounters counters) {
 
-        Sort sort = switch (sortBy) {
-            case "oldest" -> Sort.by("publishedAt").ascending();
-            case "title" -> Sort.by("title").ascending();
-            case "author" -> Sort.by("author.name").ascending();
-            default -> Sort.by("publishedAt").descending();
-        };
+        if (counters == null)
+            return summary;
 
-        Pageable pageable = PageRequest.of(page, size, sort);
+        return summary.withCounters(counters.commentCount(),
+                counters.viewCount() + viewCounter.pending(summary.id()));
+    }
 
-        if (from == null) from = LocalDateTime.of(1970, 1, 1, 0, 0);
-        if (to == null) to = LocalDateTime.now().plusYears(100);
+    private Slice<PostSummary> searchByRelevance(SearchCriteria criteria, int page, int size) {
 
-        return postRepository.searchEverything(
-                type,
-                keyword,
-                from,
-                to,
-                authorIds,
-                tags,
-                pageable
-        );
+        Pageable pageable = PageRequest.of(page, size);
+        List<Long> rankedIds = rankedIds(criteria);
+
+        int start = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int end = Math.min(start + size, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(start, end);
+
+        return new SliceImpl<>(loadSummaries(pageIds), pageable, end < rankedIds.size());
+    }
+
+    private List<Long> rankedIds(SearchCriteria criteria) {
+        return searchResults.ranking(criteria, () -> searchIndex.search(criteria.type(), criteria.keyword(),
+                criteria.from(), criteria.to(), criteria.authorIds(), criteria.tags()));
     }
 
     public void delete(Long id) {
-        postRepository.deleteById(id);
+        Post post = getPost(id);
+        Long authorId = post.getAuthor() != null ? post.getAuthor().getId() : null;
+
+        postRepository.delete(post);
+        searchIndex.remove(id);
+        searchResults.invalidate();
+        contentVersion.bump();
+        fragmentCache.invalidatePost(id);
+        authorDirectory.postRemoved(authorId);
+    }
+
+    public void refreshAfterBulkChange() {
+        searchIndex.rebuild();
+        searchResults.invalidate();
+        summaries.clear();
+        authorDirectory.invalidate();
+        contentVersion.bump();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuthorSummary> getDistinctAuthorDetails() {
+        return authorDirectory.getAuthors();
     }
 
-    public List<User> getDistinctAuthorDetails() {
-        return postRepository.findDistinctAuthors();
+    @Transactional(readOnly = true)
+    public Page<PostSummary> getPostsFiltered(int page, int size) {
+
+        // same order as listPostIdsAfter, so numbered and cursor pages agree on where undated posts go
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.desc("publishedAt").nullsFirst(), Sort.Order.desc("id")));
+
+        Page<Long> ids = postRepository.listPostIds(pageable);
+
+        return new PageImpl<>(loadSummaries(ids.getContent()), pageable, ids.getTotalElements());
     }
 
-    public Page<Post> getPostsFiltered(int page, int size) {
+    @Transactional(readOnly = true)
+    public Slice<PostSummary> scrollPosts(PostCursor after, int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
+        List<Long> ids = after.publishedAt() != null
+                ? postRepository.listPostIdsAfter(after.publishedAt(), after.id(), Limit.of(size + 1))
+                : postRepository.listPostIdsAfterUndated(after.id(), Limit.of(size + 1));
 
-        return postRepository.listPosts(pageable);
+        return toSlice(ids, size);
     }
 
     public LocalDateTime parseFromDate(String fromDate) {
@@ -1,37 +1,42 @@
 package com.spring.postify.service;
 
+import com.spring.postify.cache.BoundedCache;
 import com.spring.postify.entity.Tag;
 import com.spring.postify.repository.TagRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class TagService {
 
+    private static final int TAG_ID_CACHE_SIZE = 10_000;
+
     private TagRepository tagRepository;
 
+    private final BoundedCache<String, Long> tagIds = new BoundedCache<>("tag-ids", TAG_ID_CACHE_SIZE);
+
     public TagService(TagRepository tagRepository){
         this.tagRepository = tagRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<Tag> getAllTags() {
         return tagRepository.findAll();
     }
 
+    @Transactional
     public Tag getOrCreateTag(String name) {
-        return tagRepository.findByNameIgnoreCase(name)
-                .orElseGet(() -> {
-                    Tag t = new Tag();
-                    t.setName(name);
-                    t.setCreatedAt(LocalDateTime.now());
-                    t.setUpdatedAt(LocalDateTime.now());
-                    return tagRepository.save(t);
-                });
+        return resolveTags(Map.of(normalize(name), name.trim())).iterator().next();
     }
 
     public List<String> parseTagNames(String input) {
@@ -48,7 +53,7 @@ public class TagService {
             if (s != null) {
                 String trimmed = s.trim();
                 if (!trimmed.isEmpty()) {
-                    result.add(trimmed.toLowerCase());
+                    result.add(normalize(trimmed));
                 }
             }
         }
@@ -74,20 +79,105 @@ public class TagService {
         return sb.toString().trim();
     }
 
+    @Transactional
     public Set<Tag> parseTags(String tagsInput) {
 
-        Set<Tag> tags = new HashSet<>();
-
         if (tagsInput == null || tagsInput.isBlank())
-            return tags;
+            return new HashSet<>();
+
+        Map<String, String> namesByKey = new LinkedHashMap<>();
 
         for (String t : tagsInput.split("#")) {
             String trimmed = t.trim();
             if (!trimmed.isEmpty()) {
-                tags.add(getOrCreateTag(trimmed));
+                namesByKey.putIfAbsent(normalize(trimmed), trimmed);
+            }
+        }
+
+        return resolveTags(namesByKey);
+    }
+
+    @Transactional
+    public Map<String, Long> resolveTagIds(Collection<String> names) {
+
+        Map<String, Long> ids = new HashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+
+        for (String name : names) {
+            if (name == null || name.isBlank())
+                continue;
+
+            String key = normalize(name);
+            Long id = tagIds.get(key);
+
+            if (id != null) {
+                ids.put(key, id);
+            } else {
+                missing.putIfAbsent(key, name.trim());
+            }
+        }
+
+        for (Tag tag : resolveTags(missing)) {
+            ids.put(normalize(tag.getName()), tag.getId());
+        }
+
+        return ids;
+    }
+
+    private Set<Tag> resolveTags(Map<String, String> namesByKey) {
+
+        Set<Tag> tags = new HashSet<>();
+
+        if (namesByKey.isEmpty())
+            return tags;
+
+        List<Long> cachedIds = new ArrayList<>();
+        Set<String> missing = new HashSet<>();
+
+        for (String key : namesByKey.keySet()) {
+            Long id = tagIds.get(key);
+            if (id != null) {
+                cachedIds.add(id);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!cachedIds.isEmpty())
+            tags.addAll(tagRepository.findAllCached(cachedIds));
+
+        if (!missing.isEmpty()) {
+            Map<String, Tag> found = findByKeys(missing);
+
+            if (found.size() < missing.size()) {
+                String[] toInsert = missing.stream()
+                        .filter(key -> !found.containsKey(key))
+                        .map(namesByKey::get)
+                        .toArray(String[]::new);
+
+                tagRepository.insertIgnoringDuplicates(toInsert);
+                found.putAll(findByKeys(missing));
             }
+
+            found.forEach((key, tag) -> tagIds.put(key, tag.getId()));
+            tags.addAll(found.values());
         }
 
         return tags;
     }
+
+    private Map<String, Tag> findByKeys(Set<String> keys) {
+
+        Map<String, Tag> result = new HashMap<>();
+
+        for (Tag tag : tagRepository.findByNameKeys(keys)) {
+            result.putIfAbsent(normalize(tag.getName()), tag);
+        }
+
+        return result;
+    }
+
+    public String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
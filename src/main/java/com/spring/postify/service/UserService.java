@@ -1,8 +1,13 @@
 package com.spring.postify.service;
 
+import com.spring.postify.cache.ContentVersion;
 import com.spring.postify.entity.User;
 import com.spring.postify.repository.UserRepository;
+import com.spring.postify.search.PostSearchIndex;
+import com.spring.postify.search.SearchResultCache;
+import com.spring.postify.security.CachedUserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,37 +15,72 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PostSearchIndex searchIndex;
+    private final SearchResultCache searchResults;
+    private final AuthorDirectory authorDirectory;
+    private final ContentVersion contentVersion;
+    private final CachedUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository){
+    public UserService(UserRepository userRepository, PostSearchIndex searchIndex,
+                       SearchResultCache searchResults, AuthorDirectory authorDirectory,
+                       ContentVersion contentVersion, CachedUserDetailsService userDetailsService){
         this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.searchResults = searchResults;
+        this.authorDirectory = authorDirectory;
+        this.contentVersion = contentVersion;
+        this.userDetailsService = userDetailsService;
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers(){
         return userRepository.findAll();
     }
 
+    // not read-only, see PostService.getPost
     public User getUser(Long id){
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email){
         return userRepository.findUserByEmail(email);
     }
 
+    public User getUserReference(Long id){
+        return userRepository.getReferenceById(id);
+    }
+
     public User save(User user){
         return userRepository.save(user);
     }
 
+    @Transactional
     public User update(Long id, User updatedUser){
         User user = getUser(id);
+        String previousEmail = user.getEmail();
         user.setName(updatedUser.getName());
         user.setEmail(updatedUser.getEmail());
         user.setPassword(updatedUser.getPassword());
-        return userRepository.save(user);
+        AfterCommit.run(() -> {
+            searchIndex.reindexAuthor(id);
+            userDetailsService.evict(previousEmail);
+            userDetailsService.evict(user.getEmail());
+            searchResults.invalidate();
+            authorDirectory.authorRenamed(id, user.getName());
+            contentVersion.bump();
+        });
+        return user;
     }
 
     public void delete(Long id){
-        userRepository.deleteById(id);
+        User user = getUser(id);
+        userRepository.delete(user);
+        userDetailsService.evict(user.getEmail());
+        searchIndex.removeAuthor(id);
+        searchResults.invalidate();
+        authorDirectory.authorRemoved(id);
+        contentVersion.bump();
     }
 }
\ No newline at end of file
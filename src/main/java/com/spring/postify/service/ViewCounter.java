@@ -0,0 +1,90 @@
+package com.spring.postify.service;
+
+import com.spring.postify.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class ViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewCounter.class);
+
+    private final PostRepository postRepository;
+
+    // adders are never removed: removing one races with a record() that already holds it, and
+    // there is at most one per post
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // not synchronized: a virtual thread blocked on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // view counts are rendered fresh on every page, so a flush doesn't touch the content version
+    public ViewCounter(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    public void record(Long postId) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+
+    public long pending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${postify.views.flush-interval:10s}")
+    public int flush() {
+
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushPending() {
+
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+
+            if (delta > 0) {
+                ids.add(entry.getKey());
+                deltas.add(delta);
+            }
+        }
+
+        if (ids.isEmpty())
+            return 0;
+
+        try {
+            postRepository.addViewCounts(ids.toArray(Long[]::new), deltas.toArray(Long[]::new));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < ids.size(); i++) {
+                pending.computeIfAbsent(ids.get(i), id -> new LongAdder()).add(deltas.get(i));
+            }
+            log.warn("Could not flush view counts for {} posts, will retry", ids.size(), e);
+            return 0;
+        }
+
+        return ids.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
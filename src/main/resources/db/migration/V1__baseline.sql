@@ -0,0 +1,45 @@
+-- Matches the tables previously created by hibernate.ddl-auto=update, so
+-- existing databases adopt this baseline without changes.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     VARCHAR(255),
+    email    VARCHAR(255) UNIQUE,
+    password VARCHAR(255),
+    role     VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS posts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255),
+    excerpt      VARCHAR(255),
+    content      TEXT,
+    author_id    BIGINT REFERENCES users (id),
+    published_at TIMESTAMP(6),
+    is_published BOOLEAN,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tags (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS post_tags (
+    post_id BIGINT NOT NULL REFERENCES posts (id),
+    tag_id  BIGINT NOT NULL REFERENCES tags (id),
+    PRIMARY KEY (post_id, tag_id)
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255),
+    email      VARCHAR(255),
+    comment    TEXT,
+    post_id    BIGINT REFERENCES posts (id),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
@@ -0,0 +1,34 @@
+-- Post listing and keyset scrolling: ORDER BY published_at DESC, id DESC,
+-- plus the published_at range filter used by search.
+CREATE INDEX IF NOT EXISTS ix_posts_published_at_id ON posts (published_at DESC, id DESC);
+
+-- Author filter and author directory counts.
+CREATE INDEX IF NOT EXISTS ix_posts_author_id ON posts (author_id);
+
+-- Tag filter: post_tags is keyed (post_id, tag_id), this covers lookups by tag.
+CREATE INDEX IF NOT EXISTS ix_post_tags_tag_id_post_id ON post_tags (tag_id, post_id);
+
+-- findByPostIdOrderByCreatedAtDesc.
+CREATE INDEX IF NOT EXISTS ix_comments_post_id_created_at ON comments (post_id, created_at DESC);
+
+-- findByNameIgnoreCase / findByNameKeys and the ON CONFLICT target of
+-- insertIgnoringDuplicates. Duplicate names are merged into the oldest tag
+-- before the unique index is built.
+INSERT INTO post_tags (post_id, tag_id)
+SELECT pt.post_id, keep.id
+FROM post_tags pt
+JOIN tags t ON t.id = pt.tag_id
+JOIN (SELECT lower(name) AS name_key, MIN(id) AS id FROM tags GROUP BY lower(name)) keep
+  ON keep.name_key = lower(t.name)
+WHERE keep.id <> t.id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM post_tags pt
+USING tags t
+WHERE t.id = pt.tag_id
+  AND t.id <> (SELECT MIN(d.id) FROM tags d WHERE lower(d.name) = lower(t.name));
+
+DELETE FROM tags t
+WHERE t.id <> (SELECT MIN(d.id) FROM tags d WHERE lower(d.name) = lower(t.name));
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_tags_name_key ON tags (lower(name));
@@ -0,0 +1,5 @@
+-- Comment threads are paged by (created_at, id) descending; include id so
+-- the keyset predicate and tiebreaker are served by the index alone.
+DROP INDEX IF EXISTS ix_comments_post_id_created_at;
+
+CREATE INDEX IF NOT EXISTS ix_comments_post_id_created_at_id ON comments (post_id, created_at DESC, id DESC);
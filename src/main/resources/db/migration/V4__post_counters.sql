@@ -0,0 +1,7 @@
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE posts p
+SET comment_count = c.total
+FROM (SELECT post_id, COUNT(*) AS total FROM comments GROUP BY post_id) c
+WHERE c.post_id = p.id;
@@ -0,0 +1,24 @@
+-- Move ids from identity columns to sequences that Hibernate can allocate in
+-- blocks of 50 (pooled optimizer), which allows JDBC insert batching.
+-- Column defaults keep working for native inserts: each nextval() returns the
+-- top of a block, so they never collide with ids Hibernate hands out.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50 OWNED BY users.id;
+CREATE SEQUENCE IF NOT EXISTS posts_seq INCREMENT BY 50 OWNED BY posts.id;
+CREATE SEQUENCE IF NOT EXISTS tags_seq INCREMENT BY 50 OWNED BY tags.id;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50 OWNED BY comments.id;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50) FROM users;
+SELECT setval('posts_seq', COALESCE(MAX(id), 0) + 50) FROM posts;
+SELECT setval('tags_seq', COALESCE(MAX(id), 0) + 50) FROM tags;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50) FROM comments;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE posts ALTER COLUMN id SET DEFAULT nextval('posts_seq');
+ALTER TABLE tags ALTER COLUMN id SET DEFAULT nextval('tags_seq');
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
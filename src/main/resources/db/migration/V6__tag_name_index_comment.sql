@@ -0,0 +1,7 @@
+-- Correction to V2, which can't be edited once applied (migrations are
+-- checksummed): ux_tags_name_key indexes lower(name), so it serves
+-- findByNameKeys (LOWER(t.name) IN ...) and the ON CONFLICT target of
+-- insertIgnoringDuplicates. It never served findByNameIgnoreCase, whose
+-- derived query compares upper(name); that method has since been removed.
+COMMENT ON INDEX ux_tags_name_key IS
+    'Unique tag names, case-insensitive. Serves findByNameKeys (lower(name) IN ...) and the ON CONFLICT target of insertIgnoringDuplicates.';
@@ -0,0 +1,4 @@
+-- The post view's ETag takes max(updated_at) of the post's comments on every
+-- request; with this index that is a single backward index probe instead of
+-- a scan of the whole thread. The comment count comes from posts.comment_count.
+CREATE INDEX IF NOT EXISTS ix_comments_post_id_updated_at ON comments (post_id, updated_at);
@@ -0,0 +1,29 @@
+package com.spring.postify;
+
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Properties;
+
+// Condition for tests that need the Postgres configured in application.properties:
+// @EnabledIf("com.spring.postify.TestDatabase#available")
+public final class TestDatabase {
+
+	private TestDatabase() {
+	}
+
+	public static boolean available() {
+		try {
+			Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+			DriverManager.setLoginTimeout(2);
+			try (Connection ignored = DriverManager.getConnection(properties.getProperty("spring.datasource.url"),
+					properties.getProperty("spring.datasource.username"),
+					properties.getProperty("spring.datasource.password"))) {
+				return true;
+			}
+		} catch (Exception e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.spring.postify.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvArchiveReaderTests {
+
+	@Test
+	void readsRowsByHeaderName() {
+		String csv = """
+				author_email,title,published_at,tags
+				alice@example.com,First,2024-05-01,#java #spring
+				bob@example.com,Second,2024-05-02T10:15:30,
+				""";
+
+		List<ArchivedPost> posts = readAll(csv);
+
+		assertThat(posts).hasSize(2);
+		assertThat(posts.get(0).authorEmail()).isEqualTo("alice@example.com");
+		assertThat(posts.get(0).publishedAt()).isEqualTo(LocalDateTime.of(2024, 5, 1, 0, 0));
+		assertThat(posts.get(0).tags()).map(String::trim).contains("java", "spring");
+		assertThat(posts.get(1).publishedAt()).isEqualTo(LocalDateTime.of(2024, 5, 2, 10, 15, 30));
+		assertThat(posts.get(1).tags()).isEmpty();
+		assertThat(posts.get(1).content()).isNull();
+	}
+
+	@Test
+	void handlesQuotedFieldsWithCommasQuotesAndNewlines() {
+		String csv = "title,content\r\n"
+				+ "\"Hello, world\",\"She said \"\"hi\"\"\nand left\"\r\n";
+
+		List<ArchivedPost> posts = readAll(csv);
+
+		assertThat(posts).singleElement().satisfies(post -> {
+			assertThat(post.title()).isEqualTo("Hello, world");
+			assertThat(post.content()).isEqualTo("She said \"hi\"\nand left");
+		});
+	}
+
+	private static List<ArchivedPost> readAll(String csv) {
+		List<ArchivedPost> posts = new ArrayList<>();
+		new CsvArchiveReader(new StringReader(csv)).forEachRemaining(posts::add);
+		return posts;
+	}
+
+}
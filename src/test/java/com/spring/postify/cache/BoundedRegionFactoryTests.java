@@ -0,0 +1,60 @@
+package com.spring.postify.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BoundedRegionFactoryTests {
+
+	private final BoundedRegionFactory factory = new BoundedRegionFactory();
+
+	@BeforeEach
+	void setUp() {
+		factory.start(mock(SessionFactoryOptions.class), Map.of(BoundedRegionFactory.MAX_ENTRIES, "2"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		factory.stop();
+	}
+
+	@Test
+	void boundsRegionsAndReportsStatistics() {
+		StorageAccess region = factory.createQueryResultsRegionStorageAccess("queries", null);
+
+		region.putIntoCache("a", 1, null);
+		region.putIntoCache("b", 2, null);
+		region.putIntoCache("c", 3, null);
+
+		assertThat(region.getFromCache("a", null)).isNull();
+		assertThat(region.getFromCache("c", null)).isEqualTo(3);
+		assertThat(region.contains("b")).isTrue();
+
+		assertThat(factory.statistics()).singleElement().satisfies(stats -> {
+			assertThat(stats.name()).isEqualTo("queries");
+			assertThat(stats.size()).isEqualTo(2);
+			assertThat(stats.maxSize()).isEqualTo(2);
+			assertThat(stats.hits()).isEqualTo(1);
+			assertThat(stats.misses()).isEqualTo(1);
+			assertThat(stats.evictions()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	void keepsTimestampsOutsideTheEntryLimit() {
+		StorageAccess timestamps = factory.createTimestampsRegionStorageAccess("timestamps", null);
+
+		for (int i = 0; i < 10; i++) {
+			timestamps.putIntoCache("table" + i, (long) i, null);
+		}
+
+		assertThat(timestamps.getFromCache("table0", null)).isEqualTo(0L);
+	}
+}
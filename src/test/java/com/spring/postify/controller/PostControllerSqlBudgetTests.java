@@ -0,0 +1,95 @@
+package com.spring.postify.controller;
+
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.UserRepository;
+import com.spring.postify.service.PostService;
+import com.spring.postify.service.TagService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static com.spring.postify.diagnostics.SqlExpectations.noRepeatedStatements;
+import static com.spring.postify.diagnostics.SqlExpectations.withinSqlBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs the pages through the real services and repositories, so the budgets pin the statements
+// they actually issue, view rendering included
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIf("com.spring.postify.TestDatabase#available")
+class PostControllerSqlBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private TagService tagService;
+
+	private User author;
+	private Post post;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("Budget", "budget-" + System.nanoTime() + "@example.com", "secret"));
+
+		Post draft = new Post("Budgeted post", "", "Statement budgets keep pages honest.",
+				author, LocalDateTime.now(), true, null, null);
+		draft.setTags(tagService.parseTags("#budget #statements"));
+		post = postService.save(draft);
+	}
+
+	@AfterEach
+	void tearDown() {
+		postService.delete(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void listPostsStaysWithinBudget() throws Exception {
+		mockMvc.perform(get("/posts"))
+				.andExpect(status().isOk())
+				.andExpect(withinSqlBudget())
+				.andExpect(noRepeatedStatements());
+	}
+
+	@Test
+	void viewStaysWithinBudget() throws Exception {
+		mockMvc.perform(get("/posts/{id}", post.getId()))
+				.andExpect(status().isOk())
+				.andExpect(withinSqlBudget())
+				.andExpect(noRepeatedStatements());
+	}
+
+	@Test
+	void searchResultStaysWithinBudget() throws Exception {
+		mockMvc.perform(get("/posts/search").param("type", "all").param("keyword", "budget")
+						.param("tags", "budget"))
+				.andExpect(status().isOk())
+				.andExpect(withinSqlBudget())
+				.andExpect(noRepeatedStatements());
+	}
+
+	@Test
+	void relevanceSearchResultStaysWithinBudget() throws Exception {
+		mockMvc.perform(get("/posts/search").param("type", "all").param("keyword", "budget")
+						.param("sortBy", "relevance"))
+				.andExpect(status().isOk())
+				.andExpect(withinSqlBudget())
+				.andExpect(noRepeatedStatements());
+	}
+}
@@ -0,0 +1,76 @@
+package com.spring.postify.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlDataSourceTests {
+
+	@Test
+	void admitsUpToThePoolSizeAndReleasesOnClose() throws SQLException {
+		DataSource pool = mock(DataSource.class);
+		Connection physical = mock(Connection.class);
+		when(pool.getConnection()).thenReturn(physical);
+
+		ConnectionAdmission admission = new ConnectionAdmission(1, 10, Duration.ofMillis(50));
+		AdmissionControlDataSource dataSource = new AdmissionControlDataSource(pool, admission);
+
+		Connection connection = dataSource.getConnection();
+		assertThat(admission.available()).isZero();
+
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		assertThat(admission.rejected()).isEqualTo(1);
+
+		connection.close();
+		connection.close();
+		verify(physical, times(2)).close();
+		assertThat(admission.available()).isEqualTo(1);
+	}
+
+	@Test
+	void returnsThePermitWhenThePoolFails() throws SQLException {
+		DataSource pool = mock(DataSource.class);
+		when(pool.getConnection()).thenThrow(new SQLException("down"));
+
+		ConnectionAdmission admission = new ConnectionAdmission(2, 10, Duration.ofMillis(50));
+
+		assertThatThrownBy(() -> new AdmissionControlDataSource(pool, admission).getConnection())
+				.hasMessage("down");
+		assertThat(admission.available()).isEqualTo(2);
+	}
+
+	@Test
+	void turnsCallersAwayOnceTheQueueIsFull() throws Exception {
+		ConnectionAdmission admission = new ConnectionAdmission(1, 1, Duration.ofSeconds(5));
+		admission.acquire();
+
+		Thread waiter = new Thread(() -> {
+			try {
+				admission.acquire();
+			} catch (SQLException ignored) {
+			}
+		});
+		waiter.start();
+		while (admission.waiting() == 0) {
+			Thread.onSpinWait();
+		}
+
+		assertThatThrownBy(admission::acquire)
+				.isInstanceOf(SQLTransientConnectionException.class)
+				.hasMessageContaining("queue is full");
+
+		admission.release();
+		waiter.join();
+	}
+}
@@ -0,0 +1,117 @@
+package com.spring.postify.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTests {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replica = mock(DataSource.class);
+	private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+	private final AtomicLong lastWrite = new AtomicLong();
+
+	private LazyConnectionDataSourceProxy dataSource;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		when(primary.getConnection()).thenReturn(mock(Connection.class));
+		when(replica.getConnection()).thenReturn(mock(Connection.class));
+
+		dataSource = new LazyConnectionDataSourceProxy(
+				new ReplicaRoutingDataSource(primary, replica, replicaAvailable::get, lastWrite::get,
+						Duration.ofMinutes(1)));
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ReplicaRoutingDataSource.unpin();
+	}
+
+	@Test
+	void routesReadOnlyTransactionsToTheReplica() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		use(dataSource);
+
+		verify(replica).getConnection();
+		verify(primary, never()).getConnection();
+	}
+
+	@Test
+	void keepsWritesOnThePrimary() throws SQLException {
+		use(dataSource);
+
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	@Test
+	void fallsBackToThePrimaryWhileTheReplicaLags() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		replicaAvailable.set(false);
+
+		use(dataSource);
+
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	@Test
+	void readsStayOnThePrimaryRightAfterContentChanges() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		lastWrite.set(System.currentTimeMillis());
+
+		use(dataSource);
+
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	@Test
+	void readsFollowingAWriteStayOnThePrimary() throws Exception {
+		ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+		MockHttpSession session = new MockHttpSession();
+
+		MockHttpServletRequest post = new MockHttpServletRequest("POST", "/comments/save");
+		post.setSession(session);
+		interceptor.preHandle(post, new MockHttpServletResponse(), null);
+		interceptor.afterCompletion(post, new MockHttpServletResponse(), null, null);
+
+		MockHttpServletRequest get = new MockHttpServletRequest("GET", "/posts/1");
+		get.setSession(session);
+		interceptor.preHandle(get, new MockHttpServletResponse(), null);
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		use(dataSource);
+
+		verify(primary).getConnection();
+		verify(replica, never()).getConnection();
+	}
+
+	private static void use(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.createStatement();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.spring.postify.diagnostics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+// MockMvc matchers over the SqlStatistics recorded for a request, view rendering included
+public final class SqlExpectations {
+
+	private static final int REPEAT_THRESHOLD = 5;
+
+	private SqlExpectations() {
+	}
+
+	public static ResultMatcher maxStatements(int max) {
+		return result -> {
+			SqlStatistics statistics = statistics(result);
+			if (statistics.statements() > max)
+				throw new AssertionError("Expected at most " + max + " statements but request issued " + statistics
+						+ ", repeated: " + statistics.repeated(2));
+		};
+	}
+
+	public static ResultMatcher withinSqlBudget() {
+		return result -> {
+			if (!(result.getHandler() instanceof HandlerMethod method) || !method.hasMethodAnnotation(SqlBudget.class))
+				throw new AssertionError("Handler " + result.getHandler() + " declares no @SqlBudget");
+
+			maxStatements(method.getMethodAnnotation(SqlBudget.class).statements()).match(result);
+		};
+	}
+
+	public static ResultMatcher noRepeatedStatements() {
+		return result -> {
+			Map<String, Integer> repeated = statistics(result).repeated(REPEAT_THRESHOLD);
+			if (!repeated.isEmpty())
+				throw new AssertionError("Request repeated statements (likely N+1): " + repeated);
+		};
+	}
+
+	private static SqlStatistics statistics(MvcResult result) {
+		if (!(result.getRequest().getAttribute(SqlStatistics.ATTRIBUTE) instanceof SqlStatistics statistics))
+			throw new AssertionError("No SqlStatistics recorded, is SqlStatisticsInterceptor registered for "
+					+ result.getRequest().getRequestURI() + "?");
+		return statistics;
+	}
+}
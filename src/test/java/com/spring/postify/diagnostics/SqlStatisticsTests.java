@@ -0,0 +1,42 @@
+package com.spring.postify.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatisticsTests {
+
+	@Test
+	void groupsStatementsByShape() {
+		SqlStatistics statistics = SqlStatistics.capture(() -> {
+			for (int i = 0; i < 5; i++) {
+				SqlStatistics.recordStatement("select t.name from tags t where t.id = " + i, 1_000_000);
+			}
+			SqlStatistics.recordStatement("select * from posts where id in (?, ?, ?)", 1_000_000);
+			SqlStatistics.recordStatement("select * from posts where id in (?,?)", 1_000_000);
+			SqlStatistics.recordRow();
+		});
+
+		assertThat(statistics.statements()).isEqualTo(7);
+		assertThat(statistics.rows()).isEqualTo(1);
+		assertThat(statistics.databaseMillis()).isEqualTo(7);
+		assertThat(statistics.repeated(5)).isEqualTo(Map.of("select t.name from tags t where t.id = ?", 5));
+		assertThat(statistics.repeated(2)).containsEntry("select * from posts where id in (?)", 2);
+	}
+
+	@Test
+	void restoresTheEnclosingRecording() {
+		SqlStatistics outer = SqlStatistics.start();
+		try {
+			SqlStatistics inner = SqlStatistics.capture(() -> SqlStatistics.recordStatement("select 1", 0));
+
+			assertThat(inner.statements()).isEqualTo(1);
+			assertThat(SqlStatistics.current()).isSameAs(outer);
+			assertThat(outer.statements()).isZero();
+		} finally {
+			SqlStatistics.stop();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.spring.postify.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentJournalTests {
+
+	@TempDir
+	Path directory;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@Test
+	void replaysOnlyUnacknowledgedComments() {
+		Path file = directory.resolve("comments.journal");
+
+		CommentJournal journal = new CommentJournal(file, jsonMapper);
+		assertThat(journal.recover()).isEmpty();
+		journal.append(comment("a"));
+		journal.append(comment("b"));
+		journal.append(comment("c"));
+		journal.acknowledge(List.of("b"));
+		journal.close();
+
+		CommentJournal reopened = new CommentJournal(file, jsonMapper);
+		assertThat(reopened.recover()).extracting(PendingComment::id).containsExactly("a", "c");
+		assertThat(reopened.recover().get(0)).isEqualTo(comment("a"));
+		reopened.close();
+	}
+
+	@Test
+	void refusesAppendsOnceClosed() {
+		CommentJournal journal = new CommentJournal(directory.resolve("comments.journal"), jsonMapper);
+		journal.recover();
+		journal.close();
+
+		assertThat(journal.append(comment("a"))).isFalse();
+		journal.acknowledge(List.of("a"));
+		assertThat(journal.outstanding()).isZero();
+	}
+
+	@Test
+	void truncatesOnceEverythingIsAcknowledged() throws Exception {
+		Path file = directory.resolve("comments.journal");
+
+		CommentJournal journal = new CommentJournal(file, jsonMapper);
+		journal.recover();
+		journal.append(comment("a"));
+		journal.acknowledge(List.of("a"));
+
+		assertThat(journal.outstanding()).isZero();
+		assertThat(Files.size(file)).isZero();
+		journal.close();
+	}
+
+	@Test
+	void ignoresATornLastLine() throws Exception {
+		Path file = directory.resolve("comments.journal");
+
+		CommentJournal journal = new CommentJournal(file, jsonMapper);
+		journal.recover();
+		journal.append(comment("a"));
+		journal.close();
+		Files.writeString(file, "+{\"id\":\"b\",\"postId\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		CommentJournal reopened = new CommentJournal(file, jsonMapper);
+		assertThat(reopened.recover()).extracting(PendingComment::id).containsExactly("a");
+		reopened.close();
+	}
+
+	private static PendingComment comment(String id) {
+		return new PendingComment(id, 1L, "Reader", "reader@example.com", "Nice post",
+				LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000));
+	}
+}
@@ -0,0 +1,48 @@
+package com.spring.postify.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsRegistryTests {
+
+	private final MetricsRegistry metrics = new MetricsRegistry();
+
+	@Test
+	void rendersHistogramsAsCumulativeBuckets() {
+		LatencyHistogram histogram = metrics.histogram("search_seconds", "Search latency", "type", "all");
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(40));
+
+		assertThat(metrics.histogram("search_seconds", "Search latency", "type", "all")).isSameAs(histogram);
+		assertThat(metrics.scrape())
+				.contains("# TYPE search_seconds histogram")
+				.contains("search_seconds_bucket{type=\"all\",le=\"0.0025\"} 0")
+				.contains("search_seconds_bucket{type=\"all\",le=\"0.005\"} 1")
+				.contains("search_seconds_bucket{type=\"all\",le=\"0.05\"} 2")
+				.contains("search_seconds_bucket{type=\"all\",le=\"+Inf\"} 2")
+				.contains("search_seconds_count{type=\"all\"} 2")
+				.contains("search_seconds_sum{type=\"all\"} 0.043");
+	}
+
+	@Test
+	void rendersCountersAndGauges() {
+		metrics.counter("slow_statements", "Slow statements").add(3);
+		metrics.gauge("pool_active", "Active connections", () -> 4, "pool", "main \"db\"");
+
+		assertThat(metrics.scrape())
+				.contains("# TYPE slow_statements counter\nslow_statements_total 3")
+				.contains("pool_active{pool=\"main \\\"db\\\"\"} 4");
+	}
+
+	@Test
+	void rejectsReusingANameWithAnotherType() {
+		metrics.counter("requests", "Requests");
+
+		assertThatThrownBy(() -> metrics.histogram("requests", "Requests"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,53 @@
+package com.spring.postify.repository;
+
+import com.spring.postify.dto.PostSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostCursorTests {
+
+	@Test
+	void roundTripsADateKey() {
+		LocalDateTime publishedAt = LocalDateTime.of(2024, 3, 1, 9, 30);
+		PostCursor cursor = PostCursor.after("latest", summary(7L, "Title", publishedAt));
+
+		PostCursor decoded = PostCursor.decode(cursor.encode(), "latest");
+
+		assertThat(decoded).isEqualTo(cursor);
+		assertThat(decoded.publishedAt()).isEqualTo(publishedAt);
+	}
+
+	@Test
+	void keepsAMissingDateInsteadOfRestarting() {
+		PostCursor cursor = PostCursor.after("oldest", summary(7L, "Title", null));
+
+		PostCursor decoded = PostCursor.decode(cursor.encode(), "oldest");
+
+		assertThat(decoded).isNotNull();
+		assertThat(decoded.key()).isNull();
+		assertThat(decoded.publishedAt()).isNull();
+		assertThat(decoded.id()).isEqualTo(7L);
+	}
+
+	@Test
+	void usesTheSameEmptyKeyAsTheQueryForAMissingTitle() {
+		PostCursor cursor = PostCursor.after("title", summary(7L, null, null));
+
+		assertThat(PostCursor.decode(cursor.encode(), "title").key()).isEmpty();
+	}
+
+	@Test
+	void rejectsACursorForAnotherSortOrAnUnparsableDate() {
+		PostCursor latest = PostCursor.after("latest", summary(7L, "Title", LocalDateTime.now()));
+
+		assertThat(PostCursor.decode(latest.encode(), "oldest")).isNull();
+		assertThat(PostCursor.decode(new PostCursor("latest", "yesterday", 7L).encode(), "latest")).isNull();
+	}
+
+	private static PostSummary summary(Long id, String title, LocalDateTime publishedAt) {
+		return new PostSummary(id, title, "", "Author", "author@example.com", publishedAt, 0, 0);
+	}
+}
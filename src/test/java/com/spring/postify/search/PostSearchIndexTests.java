@@ -0,0 +1,119 @@
+package com.spring.postify.search;
+
+import com.spring.postify.dto.PostTagName;
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.Tag;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class PostSearchIndexTests {
+
+	private PostSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new PostSearchIndex(mock(PostRepository.class), new TextAnalyzer());
+
+		User alice = user(1L, "Alice");
+		User bob = user(2L, "Bob");
+
+		index.index(post(10L, "Caching strategies", "Notes on caches and eviction.", alice, "java"));
+		index.index(post(11L, "Spring Boot tips", "Cached pages render faster when caching is on.", bob, "spring"));
+		index.index(post(12L, "Gardening", "Tomatoes and peppers.", bob, "home"));
+	}
+
+	@Test
+	void ranksTitleMatchesAboveContentMatches() {
+		assertThat(index.search("all", "caching", null, null, null, null))
+				.containsExactly(10L, 11L);
+	}
+
+	@Test
+	void scopesQueriesToTheRequestedField() {
+		assertThat(index.search("content", "tomato", null, null, null, null)).containsExactly(12L);
+		assertThat(index.search("title", "tomato", null, null, null, null)).isEmpty();
+		assertThat(index.search("author", "bob", null, null, null, null)).containsExactlyInAnyOrder(11L, 12L);
+		assertThat(index.search("tags", "spring", null, null, null, null)).containsExactly(11L);
+	}
+
+	@Test
+	void appliesAuthorAndTagFilters() {
+		assertThat(index.search("all", "cache", null, null, List.of(2L), null)).containsExactly(11L);
+		assertThat(index.search("all", "cache", null, null, null, List.of("java"))).containsExactly(10L);
+	}
+
+	@Test
+	void reflectsUpdatesAndDeletes() {
+		index.index(post(10L, "Gardening again", "Soil.", user(1L, "Alice"), "home"));
+		index.remove(11L);
+
+		assertThat(index.search("all", "caching", null, null, null, null)).isEmpty();
+		assertThat(index.search("title", "gardening", null, null, null, null)).containsExactlyInAnyOrder(10L, 12L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void rebuildsFromBatchedTagsAndKeepsChangesMadeDuringTheScan() {
+		PostRepository repository = mock(PostRepository.class);
+		PostSearchIndex rebuilt = new PostSearchIndex(repository, new TextAnalyzer());
+		ReflectionTestUtils.setField(rebuilt, "entityManager", mock(EntityManager.class));
+
+		Post caching = post(20L, "Caching strategies", "Eviction.", user(1L, "Alice"), "ignored");
+		caching.setTags(null);
+		Post gardening = post(21L, "Gardening", "Tomatoes.", user(2L, "Bob"), "ignored");
+		gardening.setTags(null);
+
+		given(repository.findIndexPage(any())).willReturn(new SliceImpl<>(List.of(caching, gardening)));
+		given(repository.findTagNamesByPostIdIn(List.of(20L, 21L))).willAnswer(invocation -> {
+			rebuilt.remove(21L);
+			return List.of(new TagName(20L, "Java"), new TagName(21L, "home"));
+		});
+
+		rebuilt.rebuild();
+
+		assertThat(rebuilt.search("tags", "java", null, null, null, null)).containsExactly(20L);
+		assertThat(rebuilt.search("all", "gardening", null, null, null, null)).isEmpty();
+		assertThat(rebuilt.size()).isEqualTo(1);
+	}
+
+	private record TagName(Long postId, String name) implements PostTagName {
+
+		@Override
+		public Long getPostId() {
+			return postId;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static User user(Long id, String name) {
+		User user = new User(name, name.toLowerCase() + "@example.com", "secret");
+		user.setId(id);
+		return user;
+	}
+
+	private static Post post(Long id, String title, String content, User author, String tag) {
+		Post post = new Post(title, "", content, author, LocalDateTime.now(), true, null, null);
+		post.setId(id);
+		post.setTags(Set.of(new Tag(tag, null, null)));
+		return post;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.spring.postify.search;
+
+import com.spring.postify.repository.PostCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchQueryCompilerTests {
+
+	private final SearchQueryCompiler compiler = new SearchQueryCompiler();
+
+	@Test
+	void countsOverASubqueryLimitedToOneMoreThanTheCap() {
+		SearchCriteria authorsOnly = SearchCriteria.of("all", " ", "latest", null, null, List.of(1L), null);
+
+		SearchQueryCompiler.CompiledSearch compiled = compiler.compileCount(authorsOnly, 1000);
+
+		assertThat(compiled.jpql()).isEqualTo("SELECT COUNT(*) FROM (SELECT p.id AS id FROM Post p"
+				+ " WHERE p.author.id IN :authorIds ORDER BY p.id LIMIT :countLimit) matches");
+		assertThat(compiled.parameters()).containsEntry("countLimit", 1001);
+	}
+
+	@Test
+	void continuesPastPostsWithoutAPublishDate() {
+		SearchCriteria latest = SearchCriteria.of("all", " ", "latest", null, null, null, null);
+
+		SearchQueryCompiler.CompiledSearch compiled = compiler.compileIds(latest, new PostCursor("latest", null, 7L));
+
+		assertThat(compiled.jpql()).isEqualTo("SELECT p.id FROM Post p"
+				+ " WHERE ((p.publishedAt IS NULL AND p.id < :cursorId) OR p.publishedAt IS NOT NULL)"
+				+ " ORDER BY p.publishedAt DESC NULLS FIRST, p.id DESC");
+		assertThat(compiled.parameters()).containsOnlyKeys("cursorId");
+	}
+
+	@Test
+	void emitsOnlyThePredicatesThatArePresent() {
+		SearchCriteria authorsOnly = SearchCriteria.of("all", " ", "latest", null, null, List.of(2L, 1L), null);
+
+		SearchQueryCompiler.CompiledSearch compiled = compiler.compileIds(authorsOnly, null);
+
+		assertThat(compiled.jpql()).isEqualTo(
+				"SELECT p.id FROM Post p WHERE p.author.id IN :authorIds ORDER BY p.publishedAt DESC NULLS FIRST, p.id DESC");
+		assertThat(compiled.parameters()).containsOnlyKeys("authorIds");
+		assertThat(compiled.parameters().get("authorIds")).isEqualTo(List.of(1L, 2L));
+	}
+
+	@Test
+	void scopesKeywordMatchesToTheRequestedField() {
+		SearchCriteria byTitle = SearchCriteria.of("title", "Spring", "title", null, null, null, List.of("Java"));
+
+		SearchQueryCompiler.CompiledSearch compiled = compiler.compileIds(byTitle, null);
+
+		assertThat(compiled.jpql())
+				.doesNotContain("JOIN p.author", "p.content", "publishedAt >=")
+				.contains("LOWER(p.title) LIKE :keyword", "LOWER(t2.name) IN :tagList");
+		assertThat(compiled.parameters()).containsEntry("keyword", "%spring%").containsEntry("tagList", List.of("java"));
+	}
+
+	@Test
+	void reusesThePlanForIdenticalShapes() {
+		LocalDateTime now = LocalDateTime.now();
+
+		compiler.compileIds(SearchCriteria.of("all", "cache", "latest", now, null, List.of(1L), null), null);
+		compiler.compileIds(SearchCriteria.of("all", "eviction", "latest", now.minusDays(3), null, List.of(4L, 5L), null), null);
+		compiler.compileCount(SearchCriteria.of("all", "cache", "latest", now, null, List.of(1L), null), 1000);
+
+		assertThat(compiler.planCount()).isEqualTo(2);
+
+		PostCursor after = new PostCursor("latest", now.toString(), 7L);
+		SearchQueryCompiler.CompiledSearch page = compiler.compileIds(
+				SearchCriteria.of("all", "cache", "latest", now, null, List.of(1L), null), after);
+
+		assertThat(compiler.planCount()).isEqualTo(3);
+		assertThat(page.parameters()).containsEntry("cursorKey", now).containsEntry("cursorId", 7L);
+	}
+
+}
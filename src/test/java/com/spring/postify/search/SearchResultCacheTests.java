@@ -0,0 +1,55 @@
+package com.spring.postify.search;
+
+import com.spring.postify.dto.SearchCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTests {
+
+	private final SearchResultCache cache = new SearchResultCache();
+
+	@Test
+	void equivalentCriteriaShareAnEntry() {
+		AtomicInteger loads = new AtomicInteger();
+
+		SearchCriteria first = SearchCriteria.of("title", " Spring ", "latest", null, null,
+				List.of(3L, 1L), List.of("Java", "boot"));
+		SearchCriteria second = SearchCriteria.of("title", "spring", "latest", null, null,
+				List.of(1L, 3L, 1L), List.of("BOOT", "java"));
+
+		cache.page(first, 0, 10, () -> { loads.incrementAndGet(); return List.of(1L, 2L); });
+		List<Long> ids = cache.page(second, 0, 10, () -> { loads.incrementAndGet(); return List.of(); });
+
+		assertThat(ids).containsExactly(1L, 2L);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void sortAndPageAreSeparateEntriesButShareTheCount() {
+		AtomicInteger loads = new AtomicInteger();
+		SearchCriteria latest = SearchCriteria.of("all", null, "latest", null, null, null, List.of("java"));
+		SearchCriteria oldest = SearchCriteria.of("title", null, "oldest", null, null, null, List.of("java"));
+
+		cache.page(latest, 0, 10, () -> { loads.incrementAndGet(); return List.of(1L); });
+		cache.page(latest, 1, 10, () -> { loads.incrementAndGet(); return List.of(2L); });
+		cache.page(oldest, 0, 10, () -> { loads.incrementAndGet(); return List.of(3L); });
+		assertThat(loads).hasValue(3);
+
+		cache.count(latest, () -> new SearchCount(42, false));
+		assertThat(cache.count(oldest, () -> new SearchCount(0, false)).value()).isEqualTo(42);
+	}
+
+	@Test
+	void invalidateMakesEarlierResultsUnreachable() {
+		SearchCriteria criteria = SearchCriteria.of("all", "spring", "latest", null, null, null, null);
+
+		cache.count(criteria, () -> new SearchCount(1, false));
+		cache.invalidate();
+
+		assertThat(cache.count(criteria, () -> new SearchCount(2, false)).value()).isEqualTo(2);
+	}
+}
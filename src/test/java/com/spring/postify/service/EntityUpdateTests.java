@@ -0,0 +1,123 @@
+package com.spring.postify.service;
+
+import com.spring.postify.entity.Comment;
+import com.spring.postify.entity.Post;
+import com.spring.postify.entity.User;
+import com.spring.postify.repository.CommentRepository;
+import com.spring.postify.repository.PostRepository;
+import com.spring.postify.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Edits load the entity first (the edit form, or the update itself) inside an open-in-view
+// persistence context, then save it; the change has to survive a re-read from a fresh context
+@SpringBootTest
+@EnabledIf("com.spring.postify.TestDatabase#available")
+class EntityUpdateTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	private User author;
+	private Post post;
+	private Comment comment;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("Editor", "editor-" + System.nanoTime() + "@example.com", "secret"));
+		post = postRepository.save(new Post("Draft title", "", "Draft content", author,
+				LocalDateTime.now(), true, null, null));
+		comment = commentRepository.save(new Comment("Reader", "reader@example.com", "First draft", post,
+				null, null));
+	}
+
+	@AfterEach
+	void tearDown() {
+		closeView();
+		commentRepository.deleteById(comment.getId());
+		postRepository.deleteById(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void postUpdateIsStored() {
+		openView();
+		postService.getPost(post.getId());
+
+		Post changes = new Post();
+		changes.setTitle("Final title");
+		changes.setContent("Final content");
+		changes.setTags(new HashSet<>());
+		postService.update(post.getId(), changes);
+		closeView();
+
+		Post reloaded = postRepository.findById(post.getId()).orElseThrow();
+		assertThat(reloaded.getTitle()).isEqualTo("Final title");
+		assertThat(reloaded.getContent()).isEqualTo("Final content");
+		assertThat(reloaded.getAuthor().getId()).isEqualTo(author.getId());
+	}
+
+	@Test
+	void commentUpdateIsStored() {
+		openView();
+		commentService.get(comment.getId());
+		commentService.update(comment.getId(), "Reader", "reader@example.com", "Edited");
+		closeView();
+
+		assertThat(commentRepository.findById(comment.getId()).orElseThrow().getComment()).isEqualTo("Edited");
+	}
+
+	@Test
+	void userUpdateIsStored() {
+		openView();
+		userService.getUser(author.getId());
+		userService.update(author.getId(), new User("Renamed", author.getEmail(), "secret"));
+		closeView();
+
+		assertThat(userRepository.findById(author.getId()).orElseThrow().getName()).isEqualTo("Renamed");
+	}
+
+	// what OpenEntityManagerInViewInterceptor does around a request
+	private void openView() {
+		TransactionSynchronizationManager.bindResource(entityManagerFactory,
+				new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+	}
+
+	private void closeView() {
+		if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+			EntityManagerHolder holder =
+					(EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			holder.getEntityManager().close();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.spring.postify.service;
+
+import com.spring.postify.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TagServiceTests {
+
+	private final TagService tagService = new TagService(mock(TagRepository.class));
+
+	@Test
+	void parsesTagNamesTheSameWayUnderEveryLocale() {
+		Locale original = Locale.getDefault();
+		try {
+			Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+			assertThat(tagService.parseTagNames("#INFO #Java"))
+					.containsExactly("info", "java")
+					.containsExactly(tagService.normalize("INFO"), tagService.normalize("Java"));
+		} finally {
+			Locale.setDefault(original);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.spring.postify.service;
+
+import com.spring.postify.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewCounterTests {
+
+	private PostRepository postRepository;
+	private ViewCounter viewCounter;
+
+	@BeforeEach
+	void setUp() {
+		postRepository = mock(PostRepository.class);
+		viewCounter = new ViewCounter(postRepository);
+	}
+
+	@Test
+	void flushesAccumulatedViewsInOneBatch() throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8_000; i++) {
+			long postId = i % 2 == 0 ? 1L : 2L;
+			pool.execute(() -> viewCounter.record(postId));
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(viewCounter.flush()).isEqualTo(2);
+
+		ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+		ArgumentCaptor<Long[]> deltas = ArgumentCaptor.forClass(Long[].class);
+		verify(postRepository).addViewCounts(ids.capture(), deltas.capture());
+
+		assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(deltas.getValue()).containsExactly(4_000L, 4_000L);
+		assertThat(viewCounter.pending(1L)).isZero();
+	}
+
+	@Test
+	void keepsViewsRecordedDuringAFlush() throws InterruptedException {
+		AtomicLong flushed = new AtomicLong();
+		when(postRepository.addViewCounts(any(), any())).thenAnswer(invocation -> {
+			for (Long delta : invocation.<Long[]>getArgument(1)) {
+				flushed.addAndGet(delta);
+			}
+			return 1;
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		for (int i = 0; i < 40_000; i++) {
+			pool.execute(() -> viewCounter.record(3L));
+			if (i % 1_000 == 0) {
+				viewCounter.flush();
+			}
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		viewCounter.flush();
+
+		assertThat(flushed.get()).isEqualTo(40_000);
+	}
+
+	@Test
+	void skipsTheDatabaseWhenNothingIsPending() {
+		assertThat(viewCounter.flush()).isZero();
+		verify(postRepository, never()).addViewCounts(any(), any());
+	}
+
+	@Test
+	void keepsViewsWhenTheFlushFails() {
+		when(postRepository.addViewCounts(any(), any())).thenThrow(new RuntimeException("down"));
+
+		viewCounter.record(7L);
+		viewCounter.record(7L);
+
+		assertThat(viewCounter.flush()).isZero();
+		assertThat(viewCounter.pending(7L)).isEqualTo(2);
+	}
+
+}